@@ -0,0 +1,62 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.AuditPayload;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.AuditPayloadMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.RawAvroPayload;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit payload capture: the former {@code ProcessingService.toRawPayload} (Jackson over the
+ * GenericRecord) against compressed Avro from a record and from the raw wire bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class AuditPayloadBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditPayloadMapper auditPayloadMapper = new AuditPayloadMapper();
+    private GenericRecord genericRecord;
+    private RawAvroPayload rawPayload;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient registry = ShipmentFixtures.registry();
+        byte[] wireBytes = ShipmentFixtures.wireBytes(registry);
+        genericRecord = ShipmentFixtures.genericRecord(registry, wireBytes);
+        rawPayload = new RawAvroPayload(1, SchemaNormalization.parsingFingerprint64(genericRecord.getSchema()), wireBytes);
+    }
+
+    @Benchmark
+    public String legacyJson() throws Exception {
+        return objectMapper.writeValueAsString(genericRecord);
+    }
+
+    @Benchmark
+    public AuditPayload compressedFromRecord() {
+        return auditPayloadMapper.toAuditPayload(genericRecord);
+    }
+
+    @Benchmark
+    public AuditPayload compressedFromWireBytes() {
+        return auditPayloadMapper.toAuditPayload(rawPayload);
+    }
+}
@@ -0,0 +1,67 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.DecodedShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.ShipmentEventDeserializer;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record value to domain event: the GenericRecord path ({@code KafkaAvroDeserializer} plus
+ * {@code EntityMapper.toEvent}) against {@link ShipmentEventDeserializer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DeserializationBenchmark {
+
+    private final EntityMapper mapper = new EntityMapper();
+    private byte[] wireBytes;
+    private KafkaAvroDeserializer genericDeserializer;
+    private ShipmentEventDeserializer directDeserializer;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient registry = ShipmentFixtures.registry();
+        wireBytes = ShipmentFixtures.wireBytes(registry);
+
+        genericDeserializer = new KafkaAvroDeserializer(registry);
+        genericDeserializer.configure(ShipmentFixtures.serdeConfig(), false);
+        directDeserializer = new ShipmentEventDeserializer(registry);
+        directDeserializer.configure(ShipmentFixtures.serdeConfig(), false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        genericDeserializer.close();
+        directDeserializer.close();
+    }
+
+    @Benchmark
+    public ShipmentEvent genericRecordThenMap() {
+        return mapper.toEvent((GenericRecord) genericDeserializer.deserialize(ShipmentFixtures.TOPIC, wireBytes));
+    }
+
+    @Benchmark
+    public ShipmentEvent directDecode() {
+        return ((DecodedShipmentEvent) directDeserializer.deserialize(ShipmentFixtures.TOPIC, wireBytes)).event();
+    }
+}
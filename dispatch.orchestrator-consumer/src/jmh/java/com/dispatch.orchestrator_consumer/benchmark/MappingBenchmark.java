@@ -0,0 +1,53 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.redis.SnapshotCodec;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MappingBenchmark {
+
+    private final EntityMapper mapper = new EntityMapper();
+    private GenericRecord genericRecord;
+    private ShipmentEvent event;
+    private ShipmentSnapshot snapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        SchemaRegistryClient registry = ShipmentFixtures.registry();
+        genericRecord = ShipmentFixtures.genericRecord(registry, ShipmentFixtures.wireBytes(registry));
+        event = mapper.toEvent(genericRecord);
+        snapshot = new SnapshotCodec(new ObjectMapper()).decode(ShipmentFixtures.avroSnapshot());
+    }
+
+    @Benchmark
+    public ShipmentEvent toEvent() {
+        return mapper.toEvent(genericRecord);
+    }
+
+    @Benchmark
+    public ShipmentEvent mergeWithSnapshot() {
+        return mapper.mergeWithSnapshot(event, snapshot);
+    }
+}
@@ -0,0 +1,101 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Realistic ShipmentEvent payloads shared by the consumer benchmarks, encoded the same way the
+ * producer encodes them.
+ */
+final class ShipmentFixtures {
+
+    static final String TOPIC = "logistics.shipments.v1";
+
+    private ShipmentFixtures() {
+    }
+
+    static com.logistics.events.ShipmentEvent avroEvent() {
+        return com.logistics.events.ShipmentEvent.newBuilder()
+                .setEventId("6f1c2d4e-8a9b-4c3d-9e8f-7a6b5c4d3e2f")
+                .setShipmentId("SHP-9001")
+                .setOrderId("ORD-12345")
+                .setCustomerId("CUST-777")
+                .setAddress("Av. José Larco 1232, Miraflores")
+                .setCity("Lima")
+                .setPostalCode("15074")
+                .setServiceLevel("EXPRESS")
+                .setRequestedAt(Instant.parse("2025-11-10T10:30:00Z"))
+                .setAttemptNumber(2)
+                .setCorrelationId("corr-XYZ-123")
+                .setStatus("RETRY")
+                .build();
+    }
+
+    static SchemaRegistryClient registry() {
+        return new MockSchemaRegistryClient();
+    }
+
+    static Map<String, Object> serdeConfig() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("schema.registry.url", "mock://benchmark");
+        config.put("auto.register.schemas", true);
+        config.put("specific.avro.reader", false);
+        return config;
+    }
+
+    /** Confluent wire-format bytes, as found on the topic. */
+    static byte[] wireBytes(SchemaRegistryClient registry) {
+        try (KafkaAvroSerializer serializer = new KafkaAvroSerializer(registry)) {
+            serializer.configure(serdeConfig(), false);
+            return serializer.serialize(TOPIC, avroEvent());
+        }
+    }
+
+    /** GenericRecord as produced by KafkaAvroDeserializer with specific.avro.reader=false. */
+    static GenericRecord genericRecord(SchemaRegistryClient registry, byte[] wireBytes) {
+        try (KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer(registry)) {
+            deserializer.configure(serdeConfig(), false);
+            return (GenericRecord) deserializer.deserialize(TOPIC, wireBytes);
+        }
+    }
+
+    /** Snapshot as the producer stores it with redis.snapshot.format=JSON. */
+    static byte[] jsonSnapshot(ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("shipmentId", "SHP-9001");
+        request.put("orderId", "ORD-12345");
+        request.put("customerId", "CUST-777");
+        request.put("address", "Av. José Larco 1232, Miraflores");
+        request.put("city", "Lima");
+        request.put("postalCode", "15074");
+        request.put("serviceLevel", "EXPRESS");
+        request.put("requestedAt", "2025-11-10T10:30:00Z");
+        request.put("attemptNumber", 1);
+        request.put("correlationId", "corr-XYZ-123");
+        request.put("status", "NEW");
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    /** Snapshot as the producer stores it with redis.snapshot.format=AVRO. */
+    static byte[] avroSnapshot() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(192);
+        out.write(0x01);
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new SpecificDatumWriter<>(com.logistics.events.ShipmentEvent.class).write(avroEvent(), encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
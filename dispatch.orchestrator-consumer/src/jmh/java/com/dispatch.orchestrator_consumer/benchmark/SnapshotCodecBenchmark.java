@@ -0,0 +1,59 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.redis.SnapshotCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot decode cost for the legacy JSON tree, JSON bound to {@link ShipmentSnapshot}, and the
+ * versioned Avro format. Payload sizes are printed once per fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SnapshotCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SnapshotCodec codec = new SnapshotCodec(objectMapper);
+    private byte[] jsonSnapshot;
+    private byte[] avroSnapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonSnapshot = ShipmentFixtures.jsonSnapshot(objectMapper);
+        avroSnapshot = ShipmentFixtures.avroSnapshot();
+        System.out.printf("%nSnapshot payload size: json=%d bytes, avro=%d bytes%n",
+                jsonSnapshot.length, avroSnapshot.length);
+    }
+
+    @Benchmark
+    public JsonNode jsonTree() throws Exception {
+        return objectMapper.readTree(jsonSnapshot);
+    }
+
+    @Benchmark
+    public ShipmentSnapshot jsonBound() throws Exception {
+        return codec.decode(jsonSnapshot);
+    }
+
+    @Benchmark
+    public ShipmentSnapshot avroV1() throws Exception {
+        return codec.decode(avroSnapshot);
+    }
+}
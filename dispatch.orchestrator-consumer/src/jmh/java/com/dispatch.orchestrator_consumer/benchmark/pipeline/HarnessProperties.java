@@ -0,0 +1,44 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "harness")
+public class HarnessProperties {
+
+    /** Records to publish. */
+    private int events = 100_000;
+
+    /** Target publish rate in events per second, 0 publishes as fast as the producer allows. */
+    private int rate = 0;
+
+    private int partitions = 12;
+
+    private long seed = 42;
+
+    private Mix mix = new Mix();
+
+    /** Share of first attempts whose snapshot is present when the second attempt arrives. */
+    private double snapshotHitRatio = 0.9;
+
+    private Duration mongoLatency = Duration.ofMillis(2);
+
+    private Duration redisLatency = Duration.ofMillis(1);
+
+    /** Probability that a Mongo write fails, which routes the record to the DLT. */
+    private double mongoFailureRate = 0.0;
+
+    private Duration drainTimeout = Duration.ofMinutes(5);
+
+    /** Relative weights of each kind of record in the replayed stream. */
+    @Data
+    public static class Mix {
+        private int first = 70;
+        private int second = 20;
+        private int duplicate = 8;
+        private int invalid = 2;
+    }
+}
@@ -0,0 +1,159 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentAuditEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentAuditRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.ShipmentWrite;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.WriteResult;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Map-backed stand-in for the Mongo repositories used on the processing path. Only the methods
+ * {@code ProcessingService} calls are implemented; anything else fails loudly so the harness never
+ * silently measures a no-op.
+ */
+class InMemoryMongo {
+
+    private final Map<String, ShipmentEntity> shipments = new ConcurrentHashMap<>();
+    private final Map<String, ShipmentAuditEntity> audits = new ConcurrentHashMap<>();
+    private final Duration latency;
+    private final double failureRate;
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    InMemoryMongo(Duration latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    ShipmentRepository shipmentRepository() {
+        return proxy(ShipmentRepository.class, this::invokeShipments);
+    }
+
+    ShipmentAuditRepository auditRepository() {
+        return proxy(ShipmentAuditRepository.class, this::invokeAudits);
+    }
+
+    long inserted() {
+        return inserted.sum();
+    }
+
+    long duplicates() {
+        return duplicates.sum();
+    }
+
+    long saved() {
+        return saved.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invokeShipments(Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "insertIfAbsent" -> write(() -> {
+                ShipmentEntity entity = (ShipmentEntity) args[0];
+                boolean absent = shipments.putIfAbsent(entity.getId(), entity) == null;
+                (absent ? inserted : duplicates).increment();
+                return absent;
+            });
+            case "save" -> write(() -> {
+                ShipmentEntity entity = (ShipmentEntity) args[0];
+                shipments.put(entity.getId(), entity);
+                saved.increment();
+                return entity;
+            });
+            case "findExistingIds" -> read(() -> ((Collection<String>) args[0]).stream()
+                    .filter(shipments::containsKey)
+                    .toList()).flatMapIterable(ids -> ids);
+            case "bulkWrite" -> read(() -> ((List<ShipmentWrite>) args[0]).stream()
+                    .map(this::applyBulkWrite)
+                    .toList());
+            case "findById", "findByShipmentId", "findSummaryById", "findSummaryByShipmentId" ->
+                    read(() -> shipments.get((String) args[0]));
+            case "existsById", "existsByShipmentId" -> read(() -> shipments.containsKey((String) args[0]));
+            case "count" -> read(() -> (long) shipments.size());
+            // the harness has no archive tier
+            case "deleteArchived" -> Mono.empty();
+            default -> throw new UnsupportedOperationException("Not supported by the harness: " + method);
+        };
+    }
+
+    // one latency for the whole bulk, failures injected per document like the server reports them
+    private WriteResult applyBulkWrite(ShipmentWrite write) {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failures.increment();
+            return new WriteResult(false, new IllegalStateException("Injected Mongo write failure"));
+        }
+        ShipmentEntity entity = write.entity();
+        if (!write.insertOnly()) {
+            shipments.put(entity.getId(), entity);
+            saved.increment();
+            return new WriteResult(false, null);
+        }
+        boolean absent = shipments.putIfAbsent(entity.getId(), entity) == null;
+        (absent ? inserted : duplicates).increment();
+        return new WriteResult(absent, null);
+    }
+
+    private Object invokeAudits(Method method, Object[] args) {
+        if (method.getName().equals("save")) {
+            return write(() -> {
+                ShipmentAuditEntity audit = (ShipmentAuditEntity) args[0];
+                audits.put(audit.getId(), audit);
+                return audit;
+            });
+        }
+        throw new UnsupportedOperationException("Not supported by the harness: " + method);
+    }
+
+    private <T> Mono<T> read(Supplier<T> operation) {
+        Mono<T> result = Mono.fromSupplier(operation);
+        return latency.isZero() ? result : Mono.delay(latency).then(result);
+    }
+
+    private <T> Mono<T> write(Supplier<T> operation) {
+        return read(() -> {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.increment();
+                throw new IllegalStateException("Injected Mongo write failure");
+            }
+            return operation.get();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R proxy(Class<R> type, Invocation invocation) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemoryMongo(" + type.getSimpleName() + ")";
+                };
+            }
+            return invocation.invoke(method, args);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,50 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.SnapshotCacheRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the Redis snapshot lookup. The load generator stores a snapshot whenever it
+ * publishes a first attempt, the way the producer does.
+ */
+class InMemorySnapshotCache implements SnapshotCacheRepository {
+
+    private final Map<String, ShipmentSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Duration latency;
+
+    InMemorySnapshotCache(Duration latency) {
+        this.latency = latency;
+    }
+
+    void put(ShipmentSnapshot snapshot) {
+        snapshots.put(snapshot.getShipmentId(), snapshot);
+    }
+
+    @Override
+    public Mono<ShipmentSnapshot> getSnapshot(String shipmentId) {
+        Mono<ShipmentSnapshot> lookup = Mono.fromSupplier(() -> snapshots.get(shipmentId));
+        return latency.isZero() ? lookup : Mono.delay(latency).then(lookup);
+    }
+
+    @Override
+    public Mono<Map<String, ShipmentSnapshot>> getSnapshots(Collection<String> shipmentIds) {
+        Mono<Map<String, ShipmentSnapshot>> lookup = Mono.fromSupplier(() -> {
+            Map<String, ShipmentSnapshot> found = new HashMap<>();
+            shipmentIds.forEach(shipmentId -> {
+                ShipmentSnapshot snapshot = snapshots.get(shipmentId);
+                if (snapshot != null) {
+                    found.put(shipmentId, snapshot);
+                }
+            });
+            return found;
+        });
+        return latency.isZero() ? lookup : Mono.delay(latency).then(lookup);
+    }
+}
@@ -0,0 +1,146 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline.PipelineStats.Kind;
+import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.events.ShipmentEvent;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes a reproducible mix of first attempts, second attempts, repeated first attempts and
+ * invalid events to the embedded broker, paced to {@code harness.rate}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class LoadGenerator {
+
+    private static final String[] CITIES = {"Lima", "Arequipa", "Cusco", "Trujillo", "Piura", "Chiclayo"};
+    private static final String[] SERVICE_LEVELS = {"STANDARD", "EXPRESS", "SAME_DAY"};
+
+    private final HarnessProperties properties;
+    private final EmbeddedKafkaBroker broker;
+    private final SchemaRegistryClient registry;
+    private final KafkaTopicsProperties topics;
+    private final InMemorySnapshotCache snapshotCache;
+    private final PipelineStats stats;
+
+    void run() throws InterruptedException {
+        if (!stats.awaitAssignment(properties.getDrainTimeout())) {
+            throw new IllegalStateException("Consumer was not assigned any partition");
+        }
+
+        Random random = new Random(properties.getSeed());
+        List<String> published = new ArrayList<>();
+        long intervalNanos = properties.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / properties.getRate() : 0;
+
+        log.info("Publishing {} events to {} ({} partitions, rate={})", properties.getEvents(), topics.getMain(),
+                properties.getPartitions(), properties.getRate() > 0 ? properties.getRate() + "/s" : "unbounded");
+
+        try (KafkaProducer<String, Object> producer = new KafkaProducer<>(producerConfig(), new StringSerializer(), serializer())) {
+            stats.start();
+            long start = System.nanoTime();
+            for (int i = 0; i < properties.getEvents(); i++) {
+                if (intervalNanos > 0) {
+                    long wait = start + i * intervalNanos - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+
+                Kind kind = published.isEmpty() ? Kind.FIRST : nextKind(random);
+                ShipmentEvent event = switch (kind) {
+                    case FIRST -> {
+                        String shipmentId = "SHP-" + i;
+                        published.add(shipmentId);
+                        if (random.nextDouble() < properties.getSnapshotHitRatio()) {
+                            snapshotCache.put(snapshot(shipmentId, i));
+                        }
+                        yield event(shipmentId, i, 1);
+                    }
+                    case SECOND -> event(published.get(random.nextInt(published.size())), i, 2);
+                    case DUPLICATE -> event(published.get(random.nextInt(published.size())), i, 1);
+                    case INVALID -> event("", i, 1);
+                };
+
+                long sentNanos = System.nanoTime();
+                producer.send(new ProducerRecord<>(topics.getMain(), event.getShipmentId(), event),
+                        (metadata, error) -> stats.onSent(kind, sentNanos, metadata, error));
+            }
+            producer.flush();
+        }
+    }
+
+    private Kind nextKind(Random random) {
+        HarnessProperties.Mix mix = properties.getMix();
+        int pick = random.nextInt(mix.getFirst() + mix.getSecond() + mix.getDuplicate() + mix.getInvalid());
+        if ((pick -= mix.getFirst()) < 0) {
+            return Kind.FIRST;
+        }
+        if ((pick -= mix.getSecond()) < 0) {
+            return Kind.SECOND;
+        }
+        return pick - mix.getDuplicate() < 0 ? Kind.DUPLICATE : Kind.INVALID;
+    }
+
+    private static ShipmentEvent event(String shipmentId, int sequence, int attemptNumber) {
+        return ShipmentEvent.newBuilder()
+                .setEventId(UUID.randomUUID().toString())
+                .setShipmentId(shipmentId)
+                .setOrderId("ORD-" + sequence)
+                .setCustomerId("CUST-" + sequence % 5000)
+                .setAddress("Av. José Larco " + sequence % 2000 + ", Miraflores")
+                .setCity(CITIES[sequence % CITIES.length])
+                .setPostalCode(String.valueOf(15000 + sequence % 100))
+                .setServiceLevel(SERVICE_LEVELS[sequence % SERVICE_LEVELS.length])
+                .setRequestedAt(Instant.now())
+                .setAttemptNumber(attemptNumber)
+                .setCorrelationId("corr-" + sequence)
+                .setStatus(attemptNumber == 1 ? "NEW" : "RETRY")
+                .build();
+    }
+
+    private static ShipmentSnapshot snapshot(String shipmentId, int sequence) {
+        return ShipmentSnapshot.builder()
+                .shipmentId(shipmentId)
+                .orderId("ORD-" + sequence)
+                .customerId("CUST-" + sequence % 5000)
+                .address("Av. José Larco " + sequence % 2000 + ", Miraflores")
+                .city(CITIES[sequence % CITIES.length])
+                .postalCode(String.valueOf(15000 + sequence % 100))
+                .serviceLevel(SERVICE_LEVELS[sequence % SERVICE_LEVELS.length])
+                .correlationId("corr-" + sequence)
+                .build();
+    }
+
+    private Map<String, Object> producerConfig() {
+        return Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+    }
+
+    private KafkaAvroSerializer serializer() {
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer(registry);
+        serializer.configure(Map.of(
+                "schema.registry.url", PipelineHarnessConfiguration.SCHEMA_REGISTRY_URL,
+                "auto.register.schemas", true), false);
+        return serializer;
+    }
+}
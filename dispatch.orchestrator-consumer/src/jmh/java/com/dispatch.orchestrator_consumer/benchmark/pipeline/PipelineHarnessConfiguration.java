@@ -0,0 +1,188 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
+import com.logistics.dispatch_orchestrator_consumer.config.ProcessingProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.AuditPayloadMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentAuditRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ProcessingService;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ShipmentDedupeFilter;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ShipmentQueryCache;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ShipmentUpdateBroadcaster;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.AdaptiveConcurrencyLimiter;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.FailedRecordRouter;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.FailedRecordSerializer;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.KafkaConsumerRunner;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.KafkaRxConsumer;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.OffsetCommitManager;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.ShipmentEventDeserializer;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.StartupMetrics;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The production consumer pipeline ({@link KafkaRxConsumer}, {@link KafkaConsumerRunner},
+ * {@link ProcessingService}) wired against an embedded broker, a mock schema registry and
+ * in-memory Mongo and Redis stand-ins. No auto-configuration is applied.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(HarnessProperties.class)
+@Import({KafkaTopicsProperties.class, ProcessingProperties.class, EntityMapper.class, AuditPayloadMapper.class,
+        PipelineMetrics.class, StartupMetrics.class, ShipmentQueryCache.class, ShipmentUpdateBroadcaster.class,
+        ProcessingService.class, FailedRecordRouter.class, KafkaRxConsumer.class,
+        AdaptiveConcurrencyLimiter.class, KafkaConsumerRunner.class})
+class PipelineHarnessConfiguration {
+
+    static final String SCHEMA_REGISTRY_URL = "mock://pipeline-harness";
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    PipelineStats pipelineStats() {
+        return new PipelineStats();
+    }
+
+    @Bean
+    EmbeddedKafkaBroker embeddedKafka(HarnessProperties properties, KafkaTopicsProperties topics) {
+        List<String> names = new ArrayList<>(topics.retryTopics());
+        names.add(topics.getMain());
+        names.add(topics.getDlt());
+        return new EmbeddedKafkaKraftBroker(1, properties.getPartitions(), names.toArray(String[]::new));
+    }
+
+    @Bean
+    SchemaRegistryClient schemaRegistryClient() {
+        return MockSchemaRegistry.getClientForScope("pipeline-harness");
+    }
+
+    @Bean
+    InMemoryMongo inMemoryMongo(HarnessProperties properties) {
+        return new InMemoryMongo(properties.getMongoLatency(), properties.getMongoFailureRate());
+    }
+
+    @Bean
+    ShipmentRepository shipmentRepository(InMemoryMongo mongo) {
+        return mongo.shipmentRepository();
+    }
+
+    @Bean
+    ShipmentAuditRepository shipmentAuditRepository(InMemoryMongo mongo) {
+        return mongo.auditRepository();
+    }
+
+    @Bean
+    InMemorySnapshotCache snapshotCacheRepository(HarnessProperties properties) {
+        return new InMemorySnapshotCache(properties.getRedisLatency());
+    }
+
+    @Bean
+    ShipmentDedupeFilter shipmentDedupeFilter(MeterRegistry meterRegistry) {
+        // no Mongo to warm up from: PipelineLoadHarness forces app.dedupe.warmup-size=0
+        return new ShipmentDedupeFilter(null, meterRegistry);
+    }
+
+    @Bean
+    OffsetCommitManager offsetCommitManager(MeterRegistry meterRegistry, PipelineStats stats, KafkaTopicsProperties topics) {
+        return new RecordingCommitManager(meterRegistry, stats, topics.getMain());
+    }
+
+    /**
+     * Names the value deserializer by class, like {@code KafkaConsumerConfig}, so every consumer built
+     * from these options (main, retry, extra receivers) creates its own instance. A deserializer
+     * instance must not be shared: {@link ShipmentEventDeserializer} keeps mutable decoders and is
+     * called from each consumer's poll thread. The instances share the mock registry client instead.
+     */
+    @Bean
+    ReceiverOptions<String, Object> kafkaReceiverOptions(EmbeddedKafkaBroker broker,
+                                                         SchemaRegistryClient registry,
+                                                         PipelineStats stats,
+                                                         PipelineMetrics metrics,
+                                                         @Value("${app.kafka.direct-decoding:true}") boolean directDecoding) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "pipeline-harness");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // mock:// resolves to the same scoped registry for KafkaAvroDeserializer
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                directDecoding ? ShipmentEventDeserializer.class : KafkaAvroDeserializer.class);
+        props.put("schema.registry.url", SCHEMA_REGISTRY_URL);
+        props.put("specific.avro.reader", false);
+        props.put(ShipmentEventDeserializer.PIPELINE_METRICS_CONFIG, metrics);
+        props.put(ShipmentEventDeserializer.SCHEMA_REGISTRY_CLIENT_CONFIG, registry);
+
+        return ReceiverOptions.<String, Object>create(props)
+                .addAssignListener(partitions -> stats.onAssigned());
+    }
+
+    @Bean
+    ProducerFactory<String, Object> failedRecordProducerFactory(EmbeddedKafkaBroker broker, SchemaRegistryClient registry) {
+        FailedRecordSerializer valueSerializer = new FailedRecordSerializer(registry);
+        valueSerializer.configure(Map.of("schema.registry.url", SCHEMA_REGISTRY_URL), false);
+        return new DefaultKafkaProducerFactory<>(
+                Map.<String, Object>of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                        ProducerConfig.LINGER_MS_CONFIG, 10),
+                new StringSerializer(), valueSerializer);
+    }
+
+    @Bean
+    KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> failedRecordProducerFactory,
+                                                KafkaTopicsProperties topics,
+                                                PipelineStats stats) {
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(failedRecordProducerFactory);
+        template.setProducerListener(new ProducerListener<>() {
+            @Override
+            public void onSuccess(ProducerRecord<String, Object> record, RecordMetadata metadata) {
+                stats.onFailureRouted(record.topic().equals(topics.getDlt()), null);
+            }
+
+            @Override
+            public void onError(ProducerRecord<String, Object> record, RecordMetadata metadata, Exception exception) {
+                stats.onFailureRouted(record.topic().equals(topics.getDlt()), exception);
+            }
+        });
+        return template;
+    }
+
+    @Bean
+    LoadGenerator loadGenerator(HarnessProperties properties,
+                                EmbeddedKafkaBroker broker,
+                                SchemaRegistryClient registry,
+                                KafkaTopicsProperties topics,
+                                InMemorySnapshotCache snapshotCache,
+                                PipelineStats stats) {
+        return new LoadGenerator(properties, broker, registry, topics, snapshotCache, stats);
+    }
+}
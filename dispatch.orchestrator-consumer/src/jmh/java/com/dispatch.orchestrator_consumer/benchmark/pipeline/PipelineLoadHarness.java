@@ -0,0 +1,49 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.KafkaConsumerRunner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * End-to-end load harness for the consumer pipeline: embedded Kafka in, in-memory Mongo and Redis
+ * out, with configurable injected latency. Prints throughput, end-to-end latency percentiles and
+ * the DLT rate. Every {@link HarnessProperties} field and the usual {@code app.*} settings can be
+ * passed as {@code --name=value}, e.g.
+ * {@code --harness.events=500000 --harness.mongo-latency=5ms --app.processing.concurrency=16}.
+ */
+public final class PipelineLoadHarness {
+
+    private static final Map<String, Object> DEFAULTS = Map.of(
+            "logging.level.com.logistics", "WARN",
+            "logging.level.com.logistics.dispatch_orchestrator_consumer.benchmark", "INFO",
+            "logging.level.org.apache.kafka", "WARN",
+            "logging.level.kafka", "WARN",
+            "logging.level.state.change.logger", "WARN");
+
+    private PipelineLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // must win over application.yml, which is still loaded for the app.* settings
+        System.setProperty("app.dedupe.warmup-size", "0");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PipelineHarnessConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(DEFAULTS)
+                .run(args)) {
+            HarnessProperties properties = context.getBean(HarnessProperties.class);
+            PipelineStats stats = context.getBean(PipelineStats.class);
+
+            // in the application ConsumerWarmup starts the consumer; the harness has no warm-up
+            context.getBean(KafkaConsumerRunner.class).startConsumer();
+            context.getBean(LoadGenerator.class).run();
+            if (!stats.awaitCompletion(properties.getDrainTimeout())) {
+                System.out.println("Drain timeout reached before every record completed; partial results follow");
+            }
+            stats.report(System.out, context.getBean(InMemoryMongo.class));
+        }
+    }
+}
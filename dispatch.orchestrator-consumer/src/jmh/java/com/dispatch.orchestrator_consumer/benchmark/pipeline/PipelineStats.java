@@ -0,0 +1,126 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Send and completion timestamps keyed by partition and offset. Latencies are only joined when
+ * the report is built, so it does not matter whether the producer callback or the consumer
+ * completion for a record is observed first.
+ */
+class PipelineStats {
+
+    enum Kind { FIRST, SECOND, DUPLICATE, INVALID }
+
+    private final Map<Long, Long> sentAt = new ConcurrentHashMap<>();
+    private final Map<Long, Long> completedAt = new ConcurrentHashMap<>();
+    private final Map<Kind, LongAdder> sentByKind = new EnumMap<>(Kind.class);
+    private final LongAdder sendErrors = new LongAdder();
+    private final LongAdder retryRecords = new LongAdder();
+    private final LongAdder dltRecords = new LongAdder();
+    private final LongAdder routingErrors = new LongAdder();
+    private final AtomicLong lastCompletion = new AtomicLong();
+    private final CountDownLatch assigned = new CountDownLatch(1);
+    private volatile long startNanos;
+
+    PipelineStats() {
+        for (Kind kind : Kind.values()) {
+            sentByKind.put(kind, new LongAdder());
+        }
+    }
+
+    void onAssigned() {
+        assigned.countDown();
+    }
+
+    boolean awaitAssignment(Duration timeout) throws InterruptedException {
+        return assigned.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void onSent(Kind kind, long sentNanos, RecordMetadata metadata, Exception error) {
+        if (error != null) {
+            sendErrors.increment();
+            return;
+        }
+        sentByKind.get(kind).increment();
+        sentAt.put(key(metadata.partition(), metadata.offset()), sentNanos);
+    }
+
+    void onCompleted(int partition, long offset) {
+        long now = System.nanoTime();
+        completedAt.put(key(partition, offset), now);
+        lastCompletion.accumulateAndGet(now, Math::max);
+    }
+
+    void onFailureRouted(boolean dlt, Exception error) {
+        if (error != null) {
+            routingErrors.increment();
+        } else {
+            (dlt ? dltRecords : retryRecords).increment();
+        }
+    }
+
+    /**
+     * Waits until every successfully published record has been completed by the consumer.
+     */
+    boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (completedAt.size() < sentAt.size()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    void report(PrintStream out, InMemoryMongo mongo) {
+        long[] latencies = sentAt.entrySet().stream()
+                .filter(sent -> completedAt.containsKey(sent.getKey()))
+                .mapToLong(sent -> completedAt.get(sent.getKey()) - sent.getValue())
+                .sorted()
+                .toArray();
+        double seconds = (lastCompletion.get() - startNanos) / 1e9;
+
+        out.println();
+        out.println("=== Consumer pipeline harness ===");
+        out.printf("published          : %d (first=%d, second=%d, duplicate=%d, invalid=%d, send errors=%d)%n",
+                sentAt.size(), sentByKind.get(Kind.FIRST).sum(), sentByKind.get(Kind.SECOND).sum(),
+                sentByKind.get(Kind.DUPLICATE).sum(), sentByKind.get(Kind.INVALID).sum(), sendErrors.sum());
+        out.printf("completed          : %d in %.2f s%n", latencies.length, seconds);
+        out.printf("throughput         : %.0f events/s%n", seconds > 0 ? latencies.length / seconds : 0);
+        out.printf("end-to-end latency : p50=%s p90=%s p99=%s p99.9=%s max=%s%n",
+                millis(latencies, 0.50), millis(latencies, 0.90), millis(latencies, 0.99),
+                millis(latencies, 0.999), millis(latencies, 1.0));
+        out.printf("DLT                : %d (%.2f%%), retry tier writes=%d, routing errors=%d%n",
+                dltRecords.sum(), latencies.length > 0 ? 100.0 * dltRecords.sum() / latencies.length : 0,
+                retryRecords.sum(), routingErrors.sum());
+        out.printf("mongo              : inserted=%d, duplicates=%d, saved=%d, injected failures=%d%n",
+                mongo.inserted(), mongo.duplicates(), mongo.saved(), mongo.failures());
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return "n/a";
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return String.format("%.2fms", sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static long key(int partition, long offset) {
+        return ((long) partition << 48) | offset;
+    }
+}
@@ -0,0 +1,31 @@
+package com.logistics.dispatch_orchestrator_consumer.benchmark.pipeline;
+
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.OffsetCommitManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+
+/**
+ * Every main-topic record, whether stored, acknowledged as a duplicate or handed to a retry tier
+ * or the DLT, ends in {@link #complete}, which makes it the end of the end-to-end latency
+ * measurement. Completions of retry-topic records are not measured.
+ */
+class RecordingCommitManager extends OffsetCommitManager {
+
+    private final PipelineStats stats;
+    private final String mainTopic;
+
+    RecordingCommitManager(MeterRegistry meterRegistry, PipelineStats stats, String mainTopic) {
+        super(meterRegistry);
+        this.stats = stats;
+        this.mainTopic = mainTopic;
+    }
+
+    @Override
+    public Mono<Void> complete(ReceiverOffset offset) {
+        if (offset.topicPartition().topic().equals(mainTopic)) {
+            stats.onCompleted(offset.topicPartition().partition(), offset.offset());
+        }
+        return super.complete(offset);
+    }
+}
@@ -1,28 +1,100 @@
 package com.logistics.dispatch_orchestrator_consumer.api;
 
+import com.logistics.dispatch_orchestrator_consumer.api.dto.ShipmentLookupRequest;
 import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentQuery;
 import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ShipmentQueryCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class QueryController {
 
     private final ShipmentRepository repository;
+    private final ShipmentQueryCache queryCache;
+
+    @Value("${app.query.lookup.max-ids:1000}")
+    private int maxLookupIds;
+
+    @Value("${app.query.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.query.page.max-size:1000}")
+    private int maxPageSize;
 
     @GetMapping("/shipments/{shipmentId}")
     public Mono<ResponseEntity<ShipmentEntity>> getShipmentById(@PathVariable String shipmentId) {
-        return repository.findByShipmentId(shipmentId)
+        return queryCache.findByShipmentId(shipmentId)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Summaries of up to {@code app.query.lookup.max-ids} shipments in one {@code $in} query. Unknown
+     * ids are left out of the response.
+     */
+    @PostMapping("/shipments/lookup")
+    public Flux<ShipmentEntity> lookupShipments(@RequestBody ShipmentLookupRequest request) {
+        if (request.getShipmentIds() == null || request.getShipmentIds().isEmpty()) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "shipmentIds is required"));
+        }
+        Set<String> ids = new LinkedHashSet<>(request.getShipmentIds());
+        if (ids.size() > maxLookupIds) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxLookupIds + " shipmentIds per lookup"));
+        }
+        return repository.findSummariesByIds(ids);
+    }
+
+    /**
+     * One page of shipments in {@code (receivedAt, id)} order, streamed as NDJSON. To fetch the next
+     * page, pass {@code cursor=<receivedAt>:<id>} of the last line; a page shorter than {@code limit}
+     * is the last one.
+     */
+    @GetMapping(value = "/shipments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ShipmentEntity> listShipments(@RequestParam(required = false) String status,
+                                              @RequestParam(required = false) String city,
+                                              @RequestParam(required = false) String serviceLevel,
+                                              @RequestParam(required = false) Long receivedFrom,
+                                              @RequestParam(required = false) Long receivedTo,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
+        ShipmentQuery.ShipmentQueryBuilder query = ShipmentQuery.builder()
+                .status(status)
+                .city(city)
+                .serviceLevel(serviceLevel)
+                .receivedFrom(receivedFrom)
+                .receivedTo(receivedTo)
+                .limit(limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize)));
+
+        if (cursor != null) {
+            int separator = cursor.indexOf(':');
+            try {
+                query.afterReceivedAt(Long.parseLong(cursor.substring(0, separator)))
+                        .afterId(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "cursor must be <receivedAt>:<id>"));
+            }
+        }
+        return repository.findSummaries(query.build());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("OK");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.logistics.dispatch_orchestrator_consumer.api;
+
+import com.logistics.dispatch_orchestrator_consumer.api.dto.ReplayRequest;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ReplayCheckpointEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ReplayRange;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.ShipmentReplayer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/admin/replay")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private final ShipmentReplayer replayer;
+
+    @Value("${app.replay.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Starts replaying a range of the main topic (default), a retry tier or the DLT. Responds 202 with
+     * the job's first checkpoint; progress is available at {@code GET /api/admin/replay/{jobId}}.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ReplayCheckpointEntity>> startReplay(@RequestBody ReplayRequest request) {
+        return guard(() -> replayer.start(ReplayRange.builder()
+                        .jobId(request.getJobId())
+                        .topic(request.getTopic())
+                        .partitions(request.getPartitions())
+                        .fromOffset(request.getFromOffset())
+                        .toOffset(request.getToOffset())
+                        .fromTimestamp(request.getFromTimestamp())
+                        .toTimestamp(request.getToTimestamp())
+                        .maxRate(request.getMaxRate())
+                        .build()))
+                .map(checkpoint -> ResponseEntity.status(HttpStatus.ACCEPTED).body(checkpoint));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public Mono<ResponseEntity<ReplayCheckpointEntity>> resumeReplay(@PathVariable String jobId) {
+        return guard(() -> replayer.resume(jobId))
+                .map(checkpoint -> ResponseEntity.status(HttpStatus.ACCEPTED).body(checkpoint))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public Mono<ResponseEntity<ReplayCheckpointEntity>> cancelReplay(@PathVariable String jobId) {
+        return guard(() -> replayer.cancel(jobId))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{jobId}")
+    public Mono<ResponseEntity<ReplayCheckpointEntity>> getReplay(@PathVariable String jobId) {
+        return guard(() -> replayer.status(jobId))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<ReplayCheckpointEntity> guard(Supplier<Mono<ReplayCheckpointEntity>> action) {
+        if (!enabled) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Replay is disabled (app.replay.enabled)"));
+        }
+        return action.get()
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .onErrorMap(IllegalStateException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage()));
+    }
+}
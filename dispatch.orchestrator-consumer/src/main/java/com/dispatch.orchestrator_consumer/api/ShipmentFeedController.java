@@ -0,0 +1,58 @@
+package com.logistics.dispatch_orchestrator_consumer.api;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentUpdate;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ShipmentUpdateBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ShipmentFeedController {
+
+    private final ShipmentUpdateBroadcaster broadcaster;
+
+    @Value("${app.feed.heartbeat:15s}")
+    private Duration heartbeat;
+
+    /**
+     * Server-sent stream of shipment writes as they are persisted. Every filter is optional and
+     * matched exactly. A comment is sent every {@code app.feed.heartbeat} so idle connections are not
+     * closed by proxies.
+     */
+    @GetMapping(value = "/shipments/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ShipmentUpdate>> feed(@RequestParam(required = false) String customerId,
+                                                      @RequestParam(required = false) String city,
+                                                      @RequestParam(required = false) String status,
+                                                      @RequestParam(required = false) String shipmentId) {
+        Flux<ServerSentEvent<ShipmentUpdate>> updates = broadcaster.subscribe(update ->
+                        matches(customerId, update.getCustomerId())
+                                && matches(city, update.getCity())
+                                && matches(status, update.getStatus())
+                                && matches(shipmentId, update.getShipmentId()))
+                .map(update -> ServerSentEvent.builder(update)
+                        .event("shipment")
+                        .id(update.getShipmentId())
+                        .build());
+
+        Flux<ServerSentEvent<ShipmentUpdate>> heartbeats = Flux.interval(heartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<ShipmentUpdate>builder().comment("heartbeat").build());
+
+        return Flux.merge(updates, heartbeats);
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || Objects.equals(filter, value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.logistics.dispatch_orchestrator_consumer.api.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReplayRequest {
+    private String jobId;
+    private String topic;
+    private List<Integer> partitions;
+    private Long fromOffset;
+    private Long toOffset;
+    private Long fromTimestamp;
+    private Long toTimestamp;
+    private Long maxRate;
+}
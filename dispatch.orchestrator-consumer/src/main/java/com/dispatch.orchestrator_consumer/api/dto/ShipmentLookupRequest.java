@@ -0,0 +1,10 @@
+package com.logistics.dispatch_orchestrator_consumer.api.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ShipmentLookupRequest {
+    private List<String> shipmentIds;
+}
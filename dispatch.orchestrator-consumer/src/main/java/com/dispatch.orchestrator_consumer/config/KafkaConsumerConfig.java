@@ -1,5 +1,9 @@
 package com.logistics.dispatch_orchestrator_consumer.config;
 
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.ShipmentEventDeserializer;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -9,6 +13,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import reactor.kafka.receiver.ReceiverOptions;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +21,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class KafkaConsumerConfig {
 
+    private final PipelineMetrics pipelineMetrics;
+
     @Value("${app.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -25,17 +32,32 @@ public class KafkaConsumerConfig {
     @Value("${app.kafka.schema-registry-url}")
     private String schemaRegistryUrl;
 
+    @Value("${app.kafka.direct-decoding:true}")
+    private boolean directDecoding;
+
+    /**
+     * Registry client shared by every {@link ShipmentEventDeserializer}, so a schema resolved during
+     * warm-up or by one receiver is never fetched again by another.
+     */
+    @Bean
+    public SchemaRegistryClient schemaRegistryClient() {
+        return new CachedSchemaRegistryClient(Arrays.asList(schemaRegistryUrl.split(",")), 1000);
+    }
+
     @Bean
-    public ReceiverOptions<String, Object> kafkaReceiverOptions() {
+    public ReceiverOptions<String, Object> kafkaReceiverOptions(SchemaRegistryClient schemaRegistryClient) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                directDecoding ? ShipmentEventDeserializer.class : KafkaAvroDeserializer.class);
         props.put("schema.registry.url", schemaRegistryUrl);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put("specific.avro.reader", false);
+        props.put(ShipmentEventDeserializer.PIPELINE_METRICS_CONFIG, pipelineMetrics);
+        props.put(ShipmentEventDeserializer.SCHEMA_REGISTRY_CLIENT_CONFIG, schemaRegistryClient);
 
         return ReceiverOptions.create(props);
     }
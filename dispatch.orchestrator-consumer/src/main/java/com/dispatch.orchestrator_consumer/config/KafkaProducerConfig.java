@@ -0,0 +1,49 @@
+package com.logistics.dispatch_orchestrator_consumer.config;
+
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.FailedRecordSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer for failed records (retry topics and DLT).
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${app.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${app.kafka.schema-registry-url}")
+    private String schemaRegistryUrl;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, FailedRecordSerializer.class);
+        configProps.put("schema.registry.url", schemaRegistryUrl);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+}
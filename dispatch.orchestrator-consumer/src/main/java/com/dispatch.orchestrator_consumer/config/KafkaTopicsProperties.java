@@ -4,10 +4,29 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "app.topics")
 public class KafkaTopicsProperties {
     private String main;
     private String dlt;
-}
\ No newline at end of file
+
+    /**
+     * Delay of each retry tier. A failed record goes through the tiers in order, one topic per
+     * tier, before ending in the DLT; empty sends failures straight to the DLT.
+     */
+    private List<Duration> retryDelays = new ArrayList<>();
+
+    public String retryTopic(int tier) {
+        return main + ".retry." + (tier + 1);
+    }
+
+    public List<String> retryTopics() {
+        return IntStream.range(0, retryDelays.size()).mapToObj(this::retryTopic).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.logistics.dispatch_orchestrator_consumer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.processing")
+public class ProcessingProperties {
+
+    /**
+     * How records are routed to processing lanes. Each lane is strictly ordered; lanes run in parallel.
+     */
+    private OrderingMode ordering = OrderingMode.KEY;
+
+    /**
+     * Number of parallel lanes, and threads of the processing scheduler.
+     */
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Records buffered per lane. Once lanes are full, demand stops reaching the Kafka receiver and it
+     * pauses its partitions until processing catches up.
+     */
+    private int prefetch = 32;
+
+    private Limiter limiter = new Limiter();
+
+    private Batch batch = new Batch();
+
+    private Routing routing = new Routing();
+
+    /**
+     * AIMD limit on concurrent {@code processShipmentEvent} calls across all lanes. The limit grows by
+     * about one per window of successful calls faster than {@code latencyThreshold}, and shrinks by
+     * {@code backoffRatio} (at most once per threshold interval) on slower calls or Mongo/Redis errors.
+     */
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 64; // in-flight work is also capped by the lane count
+        private Duration latencyThreshold = Duration.ofMillis(100);
+        private double backoffRatio = 0.8;
+    }
+
+    /**
+     * Micro-batch mode: records are buffered up to {@code maxSize} or {@code maxWait}, whichever comes
+     * first, and each batch is persisted with one dedupe query, one snapshot MGET and one bulkWrite.
+     * Batches run one at a time, so lanes and the limiter do not apply.
+     */
+    @Data
+    public static class Batch {
+        private boolean enabled = false;
+        private int maxSize = 500;
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+
+    /**
+     * Publishing a failed record to its retry tier or the DLT is retried {@code maxRetries} times with
+     * exponential backoff from {@code backoff}. If it still fails, the consumer stream is restarted
+     * after {@code restartBackoff}, so the partition is consumed again from its committed offset
+     * instead of piling up completed records behind the unacknowledged one.
+     */
+    @Data
+    public static class Routing {
+        private int maxRetries = 5;
+        private Duration backoff = Duration.ofMillis(200);
+        private Duration restartBackoff = Duration.ofSeconds(5);
+    }
+
+    public enum OrderingMode {
+        PARTITION, // lane = partition, keeps the exact partition order
+        KEY        // lane = shipmentId hash, keeps per-shipment order with finer spreading
+    }
+}
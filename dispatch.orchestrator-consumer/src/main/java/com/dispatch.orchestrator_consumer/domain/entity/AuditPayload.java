@@ -0,0 +1,17 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Raw Kafka value kept for audit: Avro binary compressed with deflate, tagged with the
+ * parsing fingerprint (CRC-64-AVRO) of the writer schema needed to decode it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPayload {
+    private long schemaFingerprint;
+    private byte[] data;
+}
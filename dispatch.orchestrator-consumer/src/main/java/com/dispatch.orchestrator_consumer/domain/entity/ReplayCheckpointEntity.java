@@ -0,0 +1,28 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+@Data
+@Document(collection = "replay_checkpoints")
+public class ReplayCheckpointEntity {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    private String id; // jobId
+
+    private String topic;
+    private Map<String, Long> nextOffsets; // partition -> next offset to replay
+    private Map<String, Long> endOffsets;  // partition -> end of the range, exclusive
+    private long maxRate;                  // records per second, 0 = uncapped
+    private Status status;
+    private long processed;
+    private long failed;
+    private String lastError;
+    private Long startedAt;
+    private Long updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Document(collection = "shipments_audit")
+public class ShipmentAuditEntity {
+
+    @Id
+    private String id; // eventId
+
+    @Indexed
+    private String shipmentId;
+    private Integer attemptNumber;
+    private Long createdAt;
+    private AuditPayload payload;
+}
@@ -23,5 +23,6 @@ public class ShipmentEntity {
     private Long receivedAt;
     private Long processedAt;
     private String correlationId;
-    private String rawPayload; // For audit purposes
+    private String rawPayload; // Legacy JSON audit payload, no longer written
+    private AuditPayload audit; // Only when app.audit.storage=INLINE
 }
\ No newline at end of file
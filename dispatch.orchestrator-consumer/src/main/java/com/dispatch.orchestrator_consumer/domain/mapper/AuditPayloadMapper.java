@@ -0,0 +1,73 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.mapper;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.AuditPayload;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.RawAvroPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+@Slf4j
+@Component
+public class AuditPayloadMapper {
+
+    private record SchemaWriter(long fingerprint, GenericDatumWriter<GenericRecord> writer) {
+    }
+
+    private final Map<Schema, SchemaWriter> writers = new ConcurrentHashMap<>();
+
+    public AuditPayload toAuditPayload(Object rawValue) {
+        if (rawValue instanceof RawAvroPayload raw) {
+            return compress(raw);
+        }
+        if (!(rawValue instanceof GenericRecord record)) {
+            return null;
+        }
+
+        SchemaWriter schemaWriter = writers.computeIfAbsent(record.getSchema(), schema -> new SchemaWriter(
+                SchemaNormalization.parsingFingerprint64(schema), new GenericDatumWriter<>(schema)));
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+                BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(deflated, null);
+                schemaWriter.writer().write(record, encoder);
+                encoder.flush();
+            } finally {
+                deflater.end();
+            }
+            return new AuditPayload(schemaWriter.fingerprint(), out.toByteArray());
+        } catch (IOException e) {
+            log.warn("Failed to encode audit payload", e);
+            return null;
+        }
+    }
+
+    private AuditPayload compress(RawAvroPayload raw) {
+        // already Avro binary on the wire, so only the body needs compressing
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+            deflated.write(raw.wireBytes(), RawAvroPayload.BODY_OFFSET,
+                    raw.wireBytes().length - RawAvroPayload.BODY_OFFSET);
+        } catch (IOException e) {
+            log.warn("Failed to compress audit payload", e);
+            return null;
+        } finally {
+            deflater.end();
+        }
+        return new AuditPayload(raw.schemaFingerprint(), out.toByteArray());
+    }
+}
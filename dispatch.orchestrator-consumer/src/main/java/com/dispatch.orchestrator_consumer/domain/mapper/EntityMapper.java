@@ -1,9 +1,8 @@
 package com.logistics.dispatch_orchestrator_consumer.domain.mapper;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
 import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
@@ -16,8 +15,6 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class EntityMapper {
 
-    private final ObjectMapper objectMapper;
-
     public ShipmentEvent toEvent(GenericRecord avroRecord) {
         return ShipmentEvent.builder()
                 .eventId(getString(avroRecord, "eventId"))
@@ -35,7 +32,7 @@ public class EntityMapper {
                 .build();
     }
 
-    public ShipmentEntity toEntity(ShipmentEvent event, String status, String rawPayload) {
+    public ShipmentEntity toEntity(ShipmentEvent event, String status) {
         long now = Instant.now().toEpochMilli();
 
         ShipmentEntity entity = new ShipmentEntity();
@@ -51,33 +48,25 @@ public class EntityMapper {
         entity.setStatus(status);
         entity.setReceivedAt(now);
         entity.setCorrelationId(event.getCorrelationId());
-        entity.setRawPayload(rawPayload);
 
         return entity;
     }
 
-    public ShipmentEvent mergeWithSnapshot(ShipmentEvent event, String snapshotJson) {
-        try {
-            JsonNode snapshot = objectMapper.readTree(snapshotJson);
-
-            return ShipmentEvent.builder()
-                    .eventId(event.getEventId())
-                    .shipmentId(getValueOrDefault(snapshot, "shipmentId", event.getShipmentId()))
-                    .orderId(getValueOrDefault(snapshot, "orderId", event.getOrderId()))
-                    .customerId(getValueOrDefault(snapshot, "customerId", event.getCustomerId()))
-                    .address(getValueOrDefault(snapshot, "address", event.getAddress()))
-                    .city(getValueOrDefault(snapshot, "city", event.getCity()))
-                    .postalCode(getValueOrDefault(snapshot, "postalCode", event.getPostalCode()))
-                    .serviceLevel(getValueOrDefault(snapshot, "serviceLevel", event.getServiceLevel()))
-                    .requestedAt(event.getRequestedAt())
-                    .attemptNumber(event.getAttemptNumber())
-                    .correlationId(getValueOrDefault(snapshot, "correlationId", event.getCorrelationId()))
-                    .status(event.getStatus())
-                    .build();
-        } catch (Exception e) {
-            log.warn("Failed to merge with snapshot, using original event", e);
-            return event;
-        }
+    public ShipmentEvent mergeWithSnapshot(ShipmentEvent event, ShipmentSnapshot snapshot) {
+        return ShipmentEvent.builder()
+                .eventId(event.getEventId())
+                .shipmentId(valueOrDefault(snapshot.getShipmentId(), event.getShipmentId()))
+                .orderId(valueOrDefault(snapshot.getOrderId(), event.getOrderId()))
+                .customerId(valueOrDefault(snapshot.getCustomerId(), event.getCustomerId()))
+                .address(valueOrDefault(snapshot.getAddress(), event.getAddress()))
+                .city(valueOrDefault(snapshot.getCity(), event.getCity()))
+                .postalCode(valueOrDefault(snapshot.getPostalCode(), event.getPostalCode()))
+                .serviceLevel(valueOrDefault(snapshot.getServiceLevel(), event.getServiceLevel()))
+                .requestedAt(event.getRequestedAt())
+                .attemptNumber(event.getAttemptNumber())
+                .correlationId(valueOrDefault(snapshot.getCorrelationId(), event.getCorrelationId()))
+                .status(event.getStatus())
+                .build();
     }
 
     private String getString(GenericRecord record, String field) {
@@ -95,8 +84,7 @@ public class EntityMapper {
         return value != null ? (Integer) value : null;
     }
 
-    private String getValueOrDefault(JsonNode snapshot, String field, String defaultValue) {
-        JsonNode node = snapshot.get(field);
-        return (node != null && !node.isNull()) ? node.asText() : defaultValue;
+    private String valueOrDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
     }
-}
\ No newline at end of file
+}
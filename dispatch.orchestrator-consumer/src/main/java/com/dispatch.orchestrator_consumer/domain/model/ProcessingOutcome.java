@@ -0,0 +1,17 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+import java.util.Locale;
+
+/**
+ * What {@code ProcessingService} did with an event. REQUEUED is a second attempt stored without a
+ * snapshot to merge.
+ */
+public enum ProcessingOutcome {
+    INSERTED, DUPLICATE, MERGED, REQUEUED;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,10 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+/**
+ * Record value exactly as received: Confluent wire format, i.e. magic byte, 4-byte schema id and
+ * the Avro binary body starting at {@link #BODY_OFFSET}.
+ */
+public record RawAvroPayload(int schemaId, long schemaFingerprint, byte[] wireBytes) {
+
+    public static final int BODY_OFFSET = 5;
+}
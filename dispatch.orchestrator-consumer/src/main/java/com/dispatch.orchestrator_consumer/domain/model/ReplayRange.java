@@ -0,0 +1,24 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * What a replay job reads: a topic, optionally some of its partitions, and a range given by offsets
+ * (applied to every partition) or by timestamps. Null bounds default to the start and the current end
+ * of each partition; offsets win over timestamps.
+ */
+@Value
+@Builder
+public class ReplayRange {
+    String jobId;           // null: a new id is generated
+    String topic;
+    List<Integer> partitions; // null or empty: every partition
+    Long fromOffset;        // inclusive
+    Long toOffset;          // exclusive
+    Long fromTimestamp;     // inclusive, epoch millis
+    Long toTimestamp;       // exclusive, epoch millis
+    Long maxRate;           // records per second; null: app.replay.max-rate
+}
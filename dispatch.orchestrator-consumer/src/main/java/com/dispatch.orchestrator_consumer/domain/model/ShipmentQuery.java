@@ -0,0 +1,22 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Filters and keyset cursor for listing shipments in {@code (receivedAt, _id)} order. Null filters
+ * are ignored; {@code afterReceivedAt}/{@code afterId} are the sort key of the last shipment of the
+ * previous page.
+ */
+@Value
+@Builder
+public class ShipmentQuery {
+    String status;
+    String city;
+    String serviceLevel;
+    Long receivedFrom; // inclusive, epoch millis
+    Long receivedTo;   // exclusive, epoch millis
+    Long afterReceivedAt;
+    String afterId;
+    int limit;
+}
@@ -0,0 +1,26 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fields of the producer's Redis snapshot that take part in the second-attempt merge.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ShipmentSnapshot {
+    private String shipmentId;
+    private String orderId;
+    private String customerId;
+    private String address;
+    private String city;
+    private String postalCode;
+    private String serviceLevel;
+    private String correlationId;
+}
@@ -0,0 +1,39 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.model;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A shipment write as pushed to live-feed subscribers: the persisted fields without the audit
+ * payload, plus what the write did.
+ */
+@Value
+@Builder
+public class ShipmentUpdate {
+    String shipmentId;
+    String orderId;
+    String customerId;
+    String city;
+    String serviceLevel;
+    String status;
+    String outcome; // inserted, merged, requeued
+    Long receivedAt;
+    Long processedAt;
+    String correlationId;
+
+    public static ShipmentUpdate of(ShipmentEntity entity, ProcessingOutcome outcome) {
+        return ShipmentUpdate.builder()
+                .shipmentId(entity.getShipmentId())
+                .orderId(entity.getOrderId())
+                .customerId(entity.getCustomerId())
+                .city(entity.getCity())
+                .serviceLevel(entity.getServiceLevel())
+                .status(entity.getStatus())
+                .outcome(outcome.tag())
+                .receivedAt(entity.getReceivedAt())
+                .processedAt(entity.getProcessedAt())
+                .correlationId(entity.getCorrelationId())
+                .build();
+    }
+}
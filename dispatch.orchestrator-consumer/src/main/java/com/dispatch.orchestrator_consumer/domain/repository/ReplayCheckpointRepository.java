@@ -0,0 +1,9 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.repository;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ReplayCheckpointEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReplayCheckpointRepository extends ReactiveMongoRepository<ReplayCheckpointEntity, String> {
+}
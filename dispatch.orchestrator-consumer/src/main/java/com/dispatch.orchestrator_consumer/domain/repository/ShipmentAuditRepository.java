@@ -0,0 +1,9 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.repository;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentAuditEntity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShipmentAuditRepository extends ReactiveMongoRepository<ShipmentAuditEntity, String> {
+}
@@ -1,14 +1,18 @@
 package com.logistics.dispatch_orchestrator_consumer.domain.repository;
 
 import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface ShipmentRepository extends ReactiveMongoRepository<ShipmentEntity, String> {
+public interface ShipmentRepository extends ReactiveMongoRepository<ShipmentEntity, String>, ShipmentRepositoryCustom {
 
     Mono<ShipmentEntity> findByShipmentId(String shipmentId);
 
+    @Query(value = "{ 'shipmentId': ?0 }", fields = "{ 'rawPayload': 0, 'audit': 0 }")
+    Mono<ShipmentEntity> findSummaryByShipmentId(String shipmentId);
+
     Mono<Boolean> existsByShipmentId(String shipmentId);
 }
\ No newline at end of file
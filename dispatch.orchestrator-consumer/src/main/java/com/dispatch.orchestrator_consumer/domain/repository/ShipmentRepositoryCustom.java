@@ -0,0 +1,70 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.repository;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ShipmentRepositoryCustom {
+
+    /**
+     * Inserts the entity unless a document with the same {@code _id} already exists, in a single
+     * atomic upsert. Emits {@code true} when the document was inserted, {@code false} when it matched
+     * an existing one (duplicate). With the archive enabled, a shipment already moved to the archive
+     * also counts as existing.
+     */
+    Mono<Boolean> insertIfAbsent(ShipmentEntity entity);
+
+    /**
+     * Emits the ids among {@code ids} that are already stored, with a single {@code $in} query per
+     * tier; the archive is only asked for the ids missing from the hot collection.
+     */
+    Flux<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Summary (without {@code rawPayload} and {@code audit}) of one shipment by {@code _id}, from the
+     * hot collection or else from the archive.
+     */
+    Mono<ShipmentEntity> findSummaryById(String id);
+
+    /**
+     * Summaries (without {@code rawPayload} and {@code audit}) of the given shipments, with a single
+     * {@code $in} query on {@code _id} per tier. Unknown ids are skipped; order is not guaranteed.
+     */
+    Flux<ShipmentEntity> findSummariesByIds(Collection<String> ids);
+
+    /**
+     * One page of summaries matching the query, in {@code (receivedAt, _id)} order, starting after the
+     * query's cursor. Served by the compound indexes created by {@code ShipmentIndexInitializer}; with
+     * the archive enabled, both tiers are read and merged into a single page.
+     */
+    Flux<ShipmentEntity> findSummaries(ShipmentQuery query);
+
+    /**
+     * Removes the archive copies of the given shipments, after they were rewritten in the hot
+     * collection, so reads never see a shipment in both tiers. A no-op with the archive disabled.
+     */
+    Mono<Void> deleteArchived(Collection<String> ids);
+
+    /**
+     * Applies every write in one unordered {@code bulkWrite}. {@code insertOnly} writes behave like
+     * {@link #insertIfAbsent}; the others replace (or create) the whole document. Emits one result per
+     * write, in input order; a write rejected by the server fails only its own result. Replaced
+     * shipments are removed from the archive, like {@link #deleteArchived}. The ids must be
+     * distinct, since an unordered bulk gives no ordering between writes to the same document.
+     */
+    Mono<List<WriteResult>> bulkWrite(List<ShipmentWrite> writes);
+
+    record ShipmentWrite(ShipmentEntity entity, boolean insertOnly) {
+    }
+
+    /**
+     * {@code inserted} is {@code true} when the write created the document; {@code error} is set when
+     * the write failed.
+     */
+    record WriteResult(boolean inserted, Throwable error) {
+    }
+}
@@ -1,7 +1,17 @@
 package com.logistics.dispatch_orchestrator_consumer.domain.repository;
 
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface SnapshotCacheRepository {
-    Mono<String> getSnapshot(String shipmentId);
-}
\ No newline at end of file
+    Mono<ShipmentSnapshot> getSnapshot(String shipmentId);
+
+    /**
+     * Snapshots for all given shipments in one round trip, keyed by shipmentId. Shipments without a
+     * snapshot are absent from the map.
+     */
+    Mono<Map<String, ShipmentSnapshot>> getSnapshots(Collection<String> shipmentIds);
+}
@@ -1,85 +1,298 @@
 package com.logistics.dispatch_orchestrator_consumer.domain.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentAuditEntity;
 import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.AuditPayloadMapper;
 import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ProcessingOutcome;
 import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentAuditRepository;
 import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.ShipmentWrite;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.WriteResult;
 import com.logistics.dispatch_orchestrator_consumer.domain.repository.SnapshotCacheRepository;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProcessingService {
 
+    /**
+     * Where the compressed raw payload goes: inline in the shipment document, in the separate
+     * {@code shipments_audit} collection, or nowhere.
+     */
+    public enum AuditStorage { INLINE, COLLECTION, NONE }
+
     private final ShipmentRepository shipmentRepository;
     private final SnapshotCacheRepository cacheRepository;
     private final EntityMapper entityMapper;
-    private final ObjectMapper objectMapper;
+    private final ShipmentDedupeFilter dedupeFilter;
+    private final AuditPayloadMapper auditPayloadMapper;
+    private final ShipmentAuditRepository auditRepository;
+    private final PipelineMetrics metrics;
+    private final ShipmentQueryCache queryCache;
+    private final ShipmentUpdateBroadcaster updateBroadcaster;
+
+    /**
+     * Result of one record of a batch: its outcome, or the error that failed that record alone.
+     */
+    public record BatchResult(ProcessingOutcome outcome, Throwable error) {
+    }
 
-    public Mono<Void> processShipmentEvent(ShipmentEvent event, Object rawValue) {
+    @Value("${app.audit.storage:INLINE}")
+    private AuditStorage auditStorage;
+
+    public Mono<ProcessingOutcome> processShipmentEvent(ShipmentEvent event, Object rawValue) {
         if (event.getShipmentId() == null || event.getShipmentId().isEmpty()) {
             log.warn("Event without shipmentId, should be sent to DLT: eventId={}", event.getEventId());
             return Mono.error(new IllegalArgumentException("Event without shipmentId"));
         }
 
-        String rawPayload = toRawPayload(rawValue);
-
         if (event.getAttemptNumber() == 1) {
-            return processFirstAttempt(event, rawPayload);
+            return processFirstAttempt(event, rawValue);
         } else if (event.getAttemptNumber() == 2) {
-            return processSecondAttempt(event, rawPayload);
+            return processSecondAttempt(event, rawValue);
         } else {
             log.warn("Unexpected attemptNumber: {}, treating as first attempt", event.getAttemptNumber());
-            return processFirstAttempt(event, rawPayload);
+            return processFirstAttempt(event, rawValue);
         }
     }
 
-    private Mono<Void> processFirstAttempt(ShipmentEvent event, String rawPayload) {
+    /**
+     * Applies the same rules as {@link #processShipmentEvent} to a whole batch with one round trip per
+     * store: a {@code $in} query for first-attempt duplicates, one Redis MGET for the second-attempt
+     * snapshots and one unordered Mongo {@code bulkWrite}. Emits one result per event, in input order,
+     * once every write of the batch has been acknowledged by Mongo.
+     * <p>
+     * An unordered bulk gives no ordering between writes to the same document, so a shipmentId seen
+     * more than once is split across consecutive rounds (its n-th occurrence goes to round n), which
+     * keeps the per-shipment order the single-record path has.
+     */
+    public Mono<List<BatchResult>> processShipmentBatch(List<ShipmentEvent> events, List<Object> rawValues) {
+        BatchResult[] results = new BatchResult[events.size()];
+        List<List<Integer>> rounds = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            ShipmentEvent event = events.get(i);
+            if (event.getShipmentId() == null || event.getShipmentId().isEmpty()) {
+                log.warn("Event without shipmentId, should be sent to DLT: eventId={}", event.getEventId());
+                results[i] = new BatchResult(null, new IllegalArgumentException("Event without shipmentId"));
+                continue;
+            }
+            int round = occurrences.merge(event.getShipmentId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(i);
+        }
+
+        return Flux.fromIterable(rounds)
+                .concatMap(round -> processRound(round, events, rawValues, results))
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    private Mono<Void> processRound(List<Integer> round, List<ShipmentEvent> events, List<Object> rawValues,
+                                    BatchResult[] results) {
+        Set<String> firstAttemptIds = new LinkedHashSet<>();
+        Set<String> secondAttemptIds = new LinkedHashSet<>();
+        for (int i : round) {
+            ShipmentEvent event = events.get(i);
+            if (event.getAttemptNumber() == 2) {
+                secondAttemptIds.add(event.getShipmentId());
+            } else if (dedupeFilter.isKnown(event.getShipmentId())) {
+                results[i] = new BatchResult(ProcessingOutcome.DUPLICATE, null);
+            } else {
+                firstAttemptIds.add(event.getShipmentId());
+            }
+        }
+
+        Mono<Set<String>> existing = firstAttemptIds.isEmpty()
+                ? Mono.just(Set.of())
+                : metrics.timeStage(Stage.DEDUPE, null, shipmentRepository.findExistingIds(firstAttemptIds)
+                        .collect(HashSet::new, Set::add), ids -> PipelineMetrics.OUTCOME_SUCCESS);
+        Mono<Map<String, ShipmentSnapshot>> snapshots = secondAttemptIds.isEmpty()
+                ? Mono.just(Map.of())
+                : metrics.timeStage(Stage.SNAPSHOT, null, cacheRepository.getSnapshots(secondAttemptIds),
+                        found -> PipelineMetrics.OUTCOME_SUCCESS);
+
+        return Mono.zip(existing, snapshots)
+                .flatMap(lookups -> {
+                    List<Integer> indexes = new ArrayList<>();
+                    List<ShipmentWrite> writes = new ArrayList<>();
+                    List<ProcessingOutcome> outcomes = new ArrayList<>();
+                    long processedAt = Instant.now().toEpochMilli();
+
+                    for (int i : round) {
+                        if (results[i] != null) {
+                            continue;
+                        }
+                        ShipmentEvent event = events.get(i);
+                        if (event.getAttemptNumber() != 2) {
+                            if (lookups.getT1().contains(event.getShipmentId())) {
+                                dedupeFilter.markSeen(event.getShipmentId());
+                                results[i] = new BatchResult(ProcessingOutcome.DUPLICATE, null);
+                                continue;
+                            }
+                            writes.add(new ShipmentWrite(toEntity(event, "QUEUED", rawValues.get(i)), true));
+                            outcomes.add(ProcessingOutcome.INSERTED);
+                        } else {
+                            ShipmentSnapshot snapshot = lookups.getT2().get(event.getShipmentId());
+                            ShipmentEvent merged = snapshot != null ? entityMapper.mergeWithSnapshot(event, snapshot) : event;
+                            ShipmentEntity entity = toEntity(merged, "QUEUED_CACHE", rawValues.get(i));
+                            entity.setProcessedAt(processedAt);
+                            writes.add(new ShipmentWrite(entity, false));
+                            outcomes.add(snapshot != null ? ProcessingOutcome.MERGED : ProcessingOutcome.REQUEUED);
+                        }
+                        indexes.add(i);
+                    }
+
+                    return metrics.timeStage(Stage.MONGO, null, shipmentRepository.bulkWrite(writes),
+                                    written -> PipelineMetrics.OUTCOME_SUCCESS)
+                            .flatMap(written -> {
+                                List<Integer> stored = new ArrayList<>();
+                                for (int w = 0; w < written.size(); w++) {
+                                    int i = indexes.get(w);
+                                    WriteResult result = written.get(w);
+                                    if (result.error() != null) {
+                                        results[i] = new BatchResult(null, result.error());
+                                        continue;
+                                    }
+                                    ProcessingOutcome outcome = writes.get(w).insertOnly() && !result.inserted()
+                                            ? ProcessingOutcome.DUPLICATE
+                                            : outcomes.get(w);
+                                    results[i] = new BatchResult(outcome, null);
+                                    dedupeFilter.markSeen(events.get(i).getShipmentId());
+                                    if (outcome != ProcessingOutcome.DUPLICATE) {
+                                        onPersisted(writes.get(w).entity(), outcome);
+                                        stored.add(i);
+                                    }
+                                }
+                                log.info("Batch round persisted: writes={}, failed={}", writes.size(),
+                                        written.stream().filter(result -> result.error() != null).count());
+                                return Flux.fromIterable(stored)
+                                        .flatMap(i -> saveAudit(events.get(i), rawValues.get(i)))
+                                        .then();
+                            });
+                })
+                .onErrorResume(error -> {
+                    log.error("Batch round failed, routing its {} records individually", round.size(), error);
+                    for (int i : round) {
+                        if (results[i] == null) {
+                            results[i] = new BatchResult(null, error);
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<ProcessingOutcome> processFirstAttempt(ShipmentEvent event, Object rawValue) {
         log.info("Processing first attempt: shipmentId={}", event.getShipmentId());
 
-        return shipmentRepository.existsByShipmentId(event.getShipmentId())
-                .flatMap(exists -> {
-                    if (exists) {
-                        log.info("Duplicate event detected for first attempt: shipmentId={}", event.getShipmentId());
-                        return Mono.empty(); // ACK duplicate
-                    } else {
-                        ShipmentEntity entity = entityMapper.toEntity(event, "QUEUED", rawPayload);
-                        return shipmentRepository.save(entity)
-                                .doOnSuccess(saved -> log.info("First attempt processed: shipmentId={}", saved.getShipmentId()))
-                                .then();
+        Timer.Sample dedupeSample = metrics.startSample();
+        boolean known = dedupeFilter.isKnown(event.getShipmentId());
+        metrics.recordStage(Stage.DEDUPE, dedupeSample, event.getAttemptNumber(), known ? "hit" : "miss");
+        if (known) {
+            log.info("Duplicate event detected for first attempt (filter): shipmentId={}", event.getShipmentId());
+            return Mono.just(ProcessingOutcome.DUPLICATE); // ACK duplicate
+        }
+
+        ShipmentEntity entity = toEntity(event, "QUEUED", rawValue);
+        return metrics.timeStage(Stage.MONGO, event.getAttemptNumber(), shipmentRepository.insertIfAbsent(entity),
+                        inserted -> Boolean.TRUE.equals(inserted) ? ProcessingOutcome.INSERTED.tag() : ProcessingOutcome.DUPLICATE.tag())
+                .flatMap(inserted -> {
+                    dedupeFilter.markSeen(event.getShipmentId());
+                    if (inserted) {
+                        onPersisted(entity, ProcessingOutcome.INSERTED);
+                        log.info("First attempt processed: shipmentId={}", event.getShipmentId());
+                        return saveAudit(event, rawValue).thenReturn(ProcessingOutcome.INSERTED);
                     }
+                    log.info("Duplicate event detected for first attempt: shipmentId={}", event.getShipmentId());
+                    return Mono.just(ProcessingOutcome.DUPLICATE);
                 });
     }
 
-    private Mono<Void> processSecondAttempt(ShipmentEvent event, String rawPayload) {
+    private Mono<ProcessingOutcome> processSecondAttempt(ShipmentEvent event, Object rawValue) {
         log.info("Processing second attempt: shipmentId={}", event.getShipmentId());
 
-        return cacheRepository.getSnapshot(event.getShipmentId())
-                .map(snapshot -> entityMapper.mergeWithSnapshot(event, snapshot))
-                .defaultIfEmpty(event)
-                .flatMap(mergedEvent -> {
-                    ShipmentEntity entity = entityMapper.toEntity(mergedEvent, "QUEUED_CACHE", rawPayload);
-                    entity.setProcessedAt(Instant.now().toEpochMilli());
+        return metrics.timeStage(Stage.SNAPSHOT, event.getAttemptNumber(), cacheRepository.getSnapshot(event.getShipmentId()),
+                        snapshot -> snapshot != null ? "hit" : "miss")
+                .flatMap(snapshot -> saveSecondAttempt(event, entityMapper.mergeWithSnapshot(event, snapshot),
+                        ProcessingOutcome.MERGED, rawValue))
+                .switchIfEmpty(Mono.defer(() -> saveSecondAttempt(event, event, ProcessingOutcome.REQUEUED, rawValue)));
+    }
 
-                    return shipmentRepository.save(entity)
-                            .doOnSuccess(saved -> log.info("Second attempt processed with cache merge: shipmentId={}", saved.getShipmentId()))
-                            .then();
-                });
+    private Mono<ProcessingOutcome> saveSecondAttempt(ShipmentEvent event, ShipmentEvent mergedEvent,
+                                                      ProcessingOutcome outcome, Object rawValue) {
+        ShipmentEntity entity = toEntity(mergedEvent, "QUEUED_CACHE", rawValue);
+        entity.setProcessedAt(Instant.now().toEpochMilli());
+
+        // a shipment rewritten after it was archived lives in the hot collection again; drop the stale copy
+        Mono<ShipmentEntity> save = shipmentRepository.save(entity)
+                .flatMap(saved -> shipmentRepository.deleteArchived(List.of(saved.getId())).thenReturn(saved));
+        return metrics.timeStage(Stage.MONGO, event.getAttemptNumber(), save, saved -> outcome.tag())
+                .doOnSuccess(saved -> {
+                    dedupeFilter.markSeen(saved.getShipmentId());
+                    onPersisted(saved, outcome);
+                    if (outcome == ProcessingOutcome.MERGED) {
+                        log.info("Second attempt processed with cache merge: shipmentId={}", saved.getShipmentId());
+                    } else {
+                        log.info("Second attempt processed without snapshot: shipmentId={}", saved.getShipmentId());
+                    }
+                })
+                .then(saveAudit(event, rawValue))
+                .thenReturn(outcome);
+    }
+
+    private void onPersisted(ShipmentEntity entity, ProcessingOutcome outcome) {
+        queryCache.invalidate(entity.getShipmentId());
+        updateBroadcaster.publish(entity, outcome);
+    }
+
+    private ShipmentEntity toEntity(ShipmentEvent event, String status, Object rawValue) {
+        ShipmentEntity entity = entityMapper.toEntity(event, status);
+        if (auditStorage == AuditStorage.INLINE) {
+            entity.setAudit(auditPayloadMapper.toAuditPayload(rawValue));
+        }
+        return entity;
     }
 
-    private String toRawPayload(Object rawValue) {
-        try {
-            return objectMapper.writeValueAsString(rawValue);
-        } catch (Exception e) {
-            log.warn("Failed to serialize raw payload", e);
-            return rawValue != null ? rawValue.toString() : "{}";
+    private Mono<Void> saveAudit(ShipmentEvent event, Object rawValue) {
+        if (auditStorage != AuditStorage.COLLECTION) {
+            return Mono.empty();
         }
+        return Mono.fromSupplier(() -> {
+                    ShipmentAuditEntity audit = new ShipmentAuditEntity();
+                    audit.setId(event.getEventId());
+                    audit.setShipmentId(event.getShipmentId());
+                    audit.setAttemptNumber(event.getAttemptNumber());
+                    audit.setCreatedAt(Instant.now().toEpochMilli());
+                    audit.setPayload(auditPayloadMapper.toAuditPayload(rawValue));
+                    return audit;
+                })
+                .flatMap(auditRepository::save)
+                .doOnError(error -> log.warn("Failed to store audit payload: shipmentId={}", event.getShipmentId(), error))
+                .onErrorResume(error -> Mono.empty())
+                .then();
     }
-}
\ No newline at end of file
+}
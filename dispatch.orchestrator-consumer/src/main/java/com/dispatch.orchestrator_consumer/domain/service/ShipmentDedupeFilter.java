@@ -0,0 +1,83 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded set of recently persisted shipmentIds. A hit means the shipment is definitely stored,
+ * so a repeated first attempt can be acknowledged without going to Mongo; a miss says nothing
+ * and the caller falls back to the conditional insert.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentDedupeFilter {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dedupe.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dedupe.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${app.dedupe.ttl:4h}")
+    private Duration ttl;
+
+    @Value("${app.dedupe.warmup-size:50000}")
+    private int warmupSize;
+
+    private Cache<String, Boolean> seen;
+
+    @PostConstruct
+    public void init() {
+        seen = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, seen, "shipment.dedupe");
+
+        if (enabled && warmupSize > 0) {
+            warmUp();
+        }
+    }
+
+    public boolean isKnown(String shipmentId) {
+        return enabled && seen.getIfPresent(shipmentId) != null;
+    }
+
+    public void markSeen(String shipmentId) {
+        if (enabled) {
+            seen.put(shipmentId, Boolean.TRUE);
+        }
+    }
+
+    private void warmUp() {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "receivedAt"))
+                .limit(warmupSize);
+        query.fields().include("_id");
+
+        mongoTemplate.find(query, ShipmentEntity.class)
+                .doOnNext(entity -> seen.put(entity.getId(), Boolean.TRUE))
+                .count()
+                .subscribe(
+                        count -> log.info("Dedupe filter warmed up with {} recent shipments", count),
+                        error -> log.warn("Dedupe filter warm-up failed, starting cold", error));
+    }
+}
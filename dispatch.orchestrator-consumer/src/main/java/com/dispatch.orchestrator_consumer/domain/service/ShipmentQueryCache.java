@@ -0,0 +1,68 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of shipment summaries for the query API. Concurrent misses for one shipmentId
+ * share a single in-flight Mongo read (hot collection, then archive); a shipment that does not exist
+ * is not cached. Entries are invalidated by {@link ProcessingService} after every write to the
+ * shipment, so the TTL only bounds staleness for writes made by other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentQueryCache {
+
+    private final ShipmentRepository repository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.query.cache.ttl:30s}")
+    private Duration ttl;
+
+    private AsyncCache<String, ShipmentEntity> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "shipment.query");
+    }
+
+    public Mono<ShipmentEntity> findByShipmentId(String shipmentId) {
+        if (!enabled) {
+            return repository.findSummaryById(shipmentId);
+        }
+        // suppressCancel: one caller going away must not cancel the read other callers share
+        return Mono.fromFuture(() -> cache.get(shipmentId,
+                (key, executor) -> repository.findSummaryById(key).toFuture()), true);
+    }
+
+    public void invalidate(String shipmentId) {
+        if (enabled) {
+            // also drops an in-flight read, so a value loaded before the write is never stored
+            cache.synchronous().invalidate(shipmentId);
+        }
+    }
+}
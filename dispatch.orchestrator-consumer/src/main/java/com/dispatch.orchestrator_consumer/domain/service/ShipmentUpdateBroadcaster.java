@@ -0,0 +1,91 @@
+package com.logistics.dispatch_orchestrator_consumer.domain.service;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ProcessingOutcome;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.function.Predicate;
+
+/**
+ * Fans out every shipment write made by {@link ProcessingService} to live-feed subscribers from a
+ * single in-memory sink, so subscribers never query Mongo. Each subscriber gets its own buffer of
+ * {@code app.feed.buffer-size} updates. When that buffer is full, the slow-consumer policy applies
+ * to that subscriber alone: drop its oldest or newest update, or disconnect it. Publishing never
+ * blocks processing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentUpdateBroadcaster {
+
+    public enum SlowConsumerPolicy { DROP_OLDEST, DROP_LATEST, DISCONNECT }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.feed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.feed.slow-consumer-policy:DROP_OLDEST}")
+    private SlowConsumerPolicy slowConsumerPolicy;
+
+    private final Sinks.Many<ShipmentUpdate> updates = Sinks.many().multicast().directBestEffort();
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        dropped = Counter.builder("shipment.feed.dropped")
+                .description("Live-feed updates dropped for slow subscribers or lost to concurrent publishers")
+                .register(meterRegistry);
+        Gauge.builder("shipment.feed.subscribers", updates, Sinks.Many::currentSubscriberCount)
+                .description("Connected live-feed subscribers")
+                .register(meterRegistry);
+    }
+
+    public void publish(ShipmentEntity entity, ProcessingOutcome outcome) {
+        if (!enabled || updates.currentSubscriberCount() == 0) {
+            return;
+        }
+        ShipmentUpdate update = ShipmentUpdate.of(entity, outcome);
+        // one attempt: this runs on a processing lane, and losing an update to a concurrent publisher
+        // costs the feed less than spinning would cost the pipeline
+        Sinks.EmitResult result = updates.tryEmitNext(update);
+        if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            dropped.increment();
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.debug("Live-feed update not emitted ({}): shipmentId={}", result, update.getShipmentId());
+        }
+    }
+
+    public Flux<ShipmentUpdate> subscribe(Predicate<ShipmentUpdate> filter) {
+        if (!enabled) {
+            return Flux.empty();
+        }
+        // filter before buffering so updates the subscriber does not want never take buffer space
+        Flux<ShipmentUpdate> filtered = updates.asFlux().filter(filter);
+        return switch (slowConsumerPolicy) {
+            case DROP_OLDEST -> filtered.onBackpressureBuffer(bufferSize, update -> dropped.increment(),
+                    BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_LATEST -> filtered.onBackpressureBuffer(bufferSize, update -> dropped.increment(),
+                    BufferOverflowStrategy.DROP_LATEST);
+            case DISCONNECT -> filtered.onBackpressureBuffer(bufferSize, update -> {
+                dropped.increment();
+                log.warn("Disconnecting slow live-feed subscriber after {} buffered updates", bufferSize);
+            });
+        };
+    }
+}
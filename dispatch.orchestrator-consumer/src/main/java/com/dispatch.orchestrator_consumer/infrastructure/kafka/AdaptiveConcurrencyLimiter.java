@@ -0,0 +1,129 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.config.ProcessingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Additive-increase/multiplicative-decrease limit on concurrent processing. Callers over the limit
+ * wait without holding a thread; while they wait their lane stops draining, so back-pressure
+ * reaches the Kafka receiver, which pauses its partitions instead of buffering more records.
+ * <p>
+ * Invalid events ({@link IllegalArgumentException}) say nothing about downstream health and do not
+ * shrink the limit.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final ProcessingProperties.Limiter config;
+    private final Deque<Permit> waiting = new ArrayDeque<>();
+    private final long thresholdNanos;
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(ProcessingProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getLimiter();
+        this.thresholdNanos = config.getLatencyThreshold().toNanos();
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getInitialLimit(), config.getMaxLimit()));
+
+        Gauge.builder("shipment.pipeline.concurrency.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("Current adaptive limit on concurrent event processing")
+                .register(meterRegistry);
+        Gauge.builder("shipment.pipeline.concurrency.waiting", this, AdaptiveConcurrencyLimiter::waitingCount)
+                .description("Records waiting for a processing permit")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> limit(Mono<T> work) {
+        if (!config.isEnabled()) {
+            return work;
+        }
+        return Mono.defer(() -> {
+            Permit permit = new Permit();
+            return Mono.<Void>create(sink -> acquire(permit, sink))
+                    .then(Mono.defer(() -> {
+                        permit.startNanos = System.nanoTime();
+                        return work;
+                    }))
+                    .doOnError(error -> permit.overload = !(error instanceof IllegalArgumentException))
+                    .doFinally(signal -> release(permit, signal));
+        });
+    }
+
+    private void acquire(Permit permit, MonoSink<Void> sink) {
+        synchronized (this) {
+            permit.sink = sink;
+            if (inFlight < (int) limit) {
+                permit.granted = true;
+                inFlight++;
+            } else {
+                waiting.addLast(permit);
+                return;
+            }
+        }
+        sink.success();
+    }
+
+    private void release(Permit permit, SignalType signal) {
+        Deque<Permit> granted = new ArrayDeque<>();
+        synchronized (this) {
+            if (!permit.granted) {
+                waiting.remove(permit); // cancelled while waiting
+                return;
+            }
+            inFlight--;
+            if (permit.startNanos > 0 && signal != SignalType.CANCEL) {
+                adjust(System.nanoTime() - permit.startNanos, permit.overload);
+            }
+            while (inFlight < (int) limit && !waiting.isEmpty()) {
+                Permit next = waiting.pollFirst();
+                next.granted = true;
+                inFlight++;
+                granted.add(next);
+            }
+        }
+        granted.forEach(next -> next.sink.success());
+    }
+
+    // guarded by this
+    private void adjust(long latencyNanos, boolean overload) {
+        long now = System.nanoTime();
+        if (overload || latencyNanos > thresholdNanos) {
+            if (now - lastDecreaseNanos >= thresholdNanos) {
+                double previous = limit;
+                limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                lastDecreaseNanos = now;
+                log.debug("Concurrency limit decreased {} -> {} (latency={}ms, overload={})",
+                        (int) previous, (int) limit, latencyNanos / 1_000_000, overload);
+            }
+        } else if (inFlight + 1 >= limit / 2) {
+            // only grow while the limit is actually in use
+            limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    private synchronized double currentLimit() {
+        return Math.floor(limit);
+    }
+
+    private synchronized double waitingCount() {
+        return waiting.size();
+    }
+
+    private static final class Permit {
+        private MonoSink<Void> sink;
+        private boolean granted;
+        private volatile long startNanos;
+        private volatile boolean overload;
+    }
+}
@@ -0,0 +1,11 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.model.RawAvroPayload;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+
+/**
+ * Value produced by {@link ShipmentEventDeserializer}; {@code event} is null when the record
+ * could not be decoded.
+ */
+public record DecodedShipmentEvent(ShipmentEvent event, RawAvroPayload raw) {
+}
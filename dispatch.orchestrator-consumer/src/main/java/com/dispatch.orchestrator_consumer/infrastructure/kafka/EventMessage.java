@@ -1,6 +1,7 @@
 package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
 
+import org.apache.kafka.common.header.Headers;
 import reactor.kafka.receiver.ReceiverOffset;
 
-public record EventMessage<T>(T payload, ReceiverOffset offset, Object rawValue) {
-}
\ No newline at end of file
+public record EventMessage<T>(T payload, ReceiverOffset offset, Object rawValue, Headers headers) {
+}
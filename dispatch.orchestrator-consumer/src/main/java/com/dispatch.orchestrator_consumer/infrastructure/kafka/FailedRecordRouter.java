@@ -0,0 +1,127 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Republishes a record that failed processing to the next retry tier, or to the DLT once the tiers
+ * are exhausted or the failure cannot succeed on retry (undecodable record, invalid event). The
+ * returned Mono completes only after the broker has acknowledged the write; the producer's
+ * {@code linger.ms} batches concurrent failures into the same request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FailedRecordRouter {
+
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+    public static final String RETRY_DUE_AT_HEADER = "x-retry-due-at";
+    public static final String FAILURE_REASON_HEADER = "x-failure-reason";
+    public static final String EXCEPTION_CLASS_HEADER = "x-exception-class";
+    public static final String ORIGINAL_TOPIC_HEADER = "x-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "x-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "x-original-offset";
+
+    private static final int MAX_REASON_LENGTH = 1000;
+
+    public enum Destination {
+        RETRY, DLT;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTopicsProperties topics;
+
+    public Mono<Destination> route(EventMessage<ShipmentEvent> message, Throwable error) {
+        return Mono.defer(() -> {
+            int retryCount = retryCount(message.headers());
+            boolean retry = isRetryable(message, error) && retryCount < topics.getRetryDelays().size();
+
+            Headers headers = failureHeaders(message, error);
+            String topic;
+            if (retry) {
+                Duration delay = topics.getRetryDelays().get(retryCount);
+                topic = topics.retryTopic(retryCount);
+                headers.add(RETRY_COUNT_HEADER, utf8(String.valueOf(retryCount + 1)));
+                headers.add(RETRY_DUE_AT_HEADER, utf8(String.valueOf(System.currentTimeMillis() + delay.toMillis())));
+            } else {
+                topic = topics.getDlt();
+                headers.add(RETRY_COUNT_HEADER, utf8(String.valueOf(retryCount)));
+            }
+
+            String key = message.payload() != null ? message.payload().getShipmentId() : null;
+            ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, key, message.rawValue(), headers);
+            Destination destination = retry ? Destination.RETRY : Destination.DLT;
+
+            return Mono.fromFuture(() -> kafkaTemplate.send(record))
+                    .doOnNext(result -> log.info("Failed record sent to {}: topic={}, retryCount={}, reason={}",
+                            destination, topic, retryCount, error.getMessage()))
+                    .thenReturn(destination);
+        });
+    }
+
+    /**
+     * Epoch millis before which a retry record must not be processed, 0 when the header is absent.
+     */
+    public static long dueAt(Headers headers) {
+        String value = lastHeader(headers, RETRY_DUE_AT_HEADER);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private static int retryCount(Headers headers) {
+        String value = lastHeader(headers, RETRY_COUNT_HEADER);
+        return value != null ? Integer.parseInt(value) : 0;
+    }
+
+    private static boolean isRetryable(EventMessage<ShipmentEvent> message, Throwable error) {
+        // an undecodable record or an invalid event fails the same way every time
+        return message.payload() != null && !(error instanceof IllegalArgumentException);
+    }
+
+    private static Headers failureHeaders(EventMessage<ShipmentEvent> message, Throwable error) {
+        Headers headers = new RecordHeaders();
+        String reason = String.valueOf(error.getMessage());
+        headers.add(FAILURE_REASON_HEADER, utf8(reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason));
+        headers.add(EXCEPTION_CLASS_HEADER, utf8(error.getClass().getName()));
+
+        // keep pointing at the main-topic record across retry tiers
+        String originalTopic = lastHeader(message.headers(), ORIGINAL_TOPIC_HEADER);
+        if (originalTopic != null) {
+            headers.add(ORIGINAL_TOPIC_HEADER, utf8(originalTopic));
+            headers.add(ORIGINAL_PARTITION_HEADER, utf8(lastHeader(message.headers(), ORIGINAL_PARTITION_HEADER)));
+            headers.add(ORIGINAL_OFFSET_HEADER, utf8(lastHeader(message.headers(), ORIGINAL_OFFSET_HEADER)));
+        } else {
+            headers.add(ORIGINAL_TOPIC_HEADER, utf8(message.offset().topicPartition().topic()));
+            headers.add(ORIGINAL_PARTITION_HEADER, utf8(String.valueOf(message.offset().topicPartition().partition())));
+            headers.add(ORIGINAL_OFFSET_HEADER, utf8(String.valueOf(message.offset().offset())));
+        }
+        return headers;
+    }
+
+    private static String lastHeader(Headers headers, String name) {
+        Header header = headers != null ? headers.lastHeader(name) : null;
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.model.RawAvroPayload;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Value serializer for records republished to the retry topics and the DLT. Records decoded by
+ * {@link ShipmentEventDeserializer} are forwarded as their original wire bytes, so they keep the
+ * producer's schema id and the retry consumer reads them exactly like the main topic. GenericRecords
+ * (KafkaAvroDeserializer mode) are re-encoded with {@link KafkaAvroSerializer}.
+ */
+public class FailedRecordSerializer implements Serializer<Object> {
+
+    private KafkaAvroSerializer avroSerializer;
+
+    public FailedRecordSerializer() {
+    }
+
+    public FailedRecordSerializer(SchemaRegistryClient registry) {
+        this.avroSerializer = new KafkaAvroSerializer(registry);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (avroSerializer == null) {
+            avroSerializer = new KafkaAvroSerializer();
+        }
+        avroSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof RawAvroPayload raw) {
+            return raw.wireBytes();
+        }
+        if (data instanceof byte[] bytes) {
+            return bytes;
+        }
+        return avroSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        if (avroSerializer != null) {
+            avroSerializer.close();
+        }
+    }
+}
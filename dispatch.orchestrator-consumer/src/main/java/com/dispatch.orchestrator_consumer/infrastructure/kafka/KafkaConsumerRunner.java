@@ -1,11 +1,24 @@
 package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
 
+import com.logistics.dispatch_orchestrator_consumer.config.ProcessingProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
 import com.logistics.dispatch_orchestrator_consumer.domain.service.ProcessingService;
-import jakarta.annotation.PostConstruct;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics.Stage;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.StartupMetrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -14,53 +27,198 @@ public class KafkaConsumerRunner {
 
     private final KafkaRxConsumer consumer;
     private final ProcessingService processingService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final FailedRecordRouter failedRecordRouter;
+    private final ProcessingProperties processingProperties;
+    private final OffsetCommitManager commitManager;
+    private final PipelineMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final StartupMetrics startupMetrics;
+
+    private Scheduler processingScheduler;
 
-    @PostConstruct
+    /**
+     * Starts consuming; called by {@code ConsumerWarmup} once the hot paths and connections are ready.
+     */
     public void startConsumer() {
-        log.info("Starting Kafka consumer for shipment events");
+        if (processingProperties.getBatch().isEnabled()) {
+            startBatchConsumer();
+            return;
+        }
+
+        int lanes = Math.max(1, processingProperties.getConcurrency());
+        int prefetch = Math.max(1, processingProperties.getPrefetch());
+        log.info("Starting Kafka consumer for shipment events: ordering={}, lanes={}, prefetch={}",
+                processingProperties.getOrdering(), lanes, prefetch);
+
+        processingScheduler = Schedulers.newParallel("shipment-processing", lanes);
 
-        consumer.stream()
+        // Every lane is drained by its own concatMap, so records sharing a lane (same partition or
+        // same shipmentId) never overlap; the lane count bounds the number of groups, which keeps
+        // groupBy from stalling on more groups than flatMap is allowed to subscribe to. Lanes only
+        // prefetch a few records, so while the limiter holds them back demand stops reaching the
+        // receiver and reactor-kafka pauses the assigned partitions instead of buffering.
+        Flux.merge(consumer.stream(), consumer.retryStream())
                 .doOnNext(message -> log.debug("Processing message: {}",
                         message.payload() != null ? message.payload().getShipmentId() : "null"))
-                .flatMap(message -> {
-                    if (message.payload() == null) {
-                        log.warn("Null payload received, sending to DLT");
-                        return sendToDlt(message)
-                                .then(acknowledgeMessage(message));
-                    }
-
-                    return processingService.processShipmentEvent(message.payload(), message.rawValue())
-                            .then(acknowledgeMessage(message))
-                            .onErrorResume(error -> {
-                                log.error("Error processing shipment event, sending to DLT: shipmentId={}",
-                                        message.payload().getShipmentId(), error);
-                                return sendToDlt(message)
-                                        .then(acknowledgeMessage(message));
-                            });
-                })
-                .onErrorContinue((error, obj) -> log.error("Error in consumer stream", error))
+                .groupBy(message -> laneOf(message, lanes), prefetch)
+                .flatMap(lane -> lane
+                        .publishOn(processingScheduler, prefetch)
+                        .concatMap(message -> startupMetrics.timeFirstRequest(handleMessage(message))), lanes)
+                .onErrorContinue(this::skippable, (error, obj) -> log.error("Error in consumer stream", error))
+                .retryWhen(restartOnUnroutable())
                 .subscribe();
 
         log.info("Kafka consumer started successfully");
     }
 
-    private reactor.core.publisher.Mono<Void> acknowledgeMessage(EventMessage<?> message) {
-        return reactor.core.publisher.Mono.fromRunnable(() -> {
-            message.offset().acknowledge();
-            log.debug("Message acknowledged");
-        });
+    private void startBatchConsumer() {
+        ProcessingProperties.Batch batch = processingProperties.getBatch();
+        log.info("Starting Kafka consumer for shipment events in batch mode: maxSize={}, maxWait={}",
+                batch.getMaxSize(), batch.getMaxWait());
+
+        processingScheduler = Schedulers.newSingle("shipment-batch-processing");
+
+        // fair backpressure: a batch is only cut when the previous one has finished, so records
+        // waiting for a slow bulkWrite stay in Kafka (paused partitions) instead of in memory
+        Flux.merge(consumer.stream(), consumer.retryStream())
+                .bufferTimeout(batch.getMaxSize(), batch.getMaxWait(), true)
+                .publishOn(processingScheduler, 1)
+                .concatMap(batch -> startupMetrics.timeFirstRequest(handleBatch(batch)), 0)
+                .onErrorContinue(this::skippable, (error, obj) -> log.error("Error in consumer stream", error))
+                .retryWhen(restartOnUnroutable())
+                .subscribe();
+
+        log.info("Kafka consumer started successfully");
+    }
+
+    @PreDestroy
+    public void stopConsumer() {
+        if (processingScheduler != null) {
+            processingScheduler.dispose();
+        }
+    }
+
+    private boolean skippable(Throwable error) {
+        return !(error instanceof UnroutableRecordException);
+    }
+
+    /**
+     * Resubscribing closes the receivers, which commits the watermarks (they stop right before the
+     * unroutable record) and drops the pending offsets, then consumes again from there.
+     */
+    private Retry restartOnUnroutable() {
+        return Retry.fixedDelay(Long.MAX_VALUE, processingProperties.getRouting().getRestartBackoff())
+                .filter(UnroutableRecordException.class::isInstance)
+                .doBeforeRetry(signal -> log.warn("Restarting Kafka consumer from committed offsets: {}",
+                        signal.failure().getMessage()));
     }
 
-    private reactor.core.publisher.Mono<Void> sendToDlt(EventMessage<?> message) {
-        return reactor.core.publisher.Mono.fromRunnable(() -> {
-            try {
-                String dltTopic = "logistics.shipments.v1.DLT";
-                kafkaTemplate.send(dltTopic, message.rawValue());
-                log.info("Message sent to DLT: topic={}", dltTopic);
-            } catch (Exception e) {
-                log.error("Failed to send message to DLT", e);
+    private int laneOf(EventMessage<ShipmentEvent> message, int lanes) {
+        ShipmentEvent event = message.payload();
+        if (processingProperties.getOrdering() == ProcessingProperties.OrderingMode.KEY
+                && event != null && event.getShipmentId() != null) {
+            return Math.floorMod(event.getShipmentId().hashCode(), lanes);
+        }
+        return Math.floorMod(message.offset().topicPartition().partition(), lanes);
+    }
+
+    private Mono<Void> handleMessage(EventMessage<ShipmentEvent> message) {
+        return metrics.trackInFlight(Mono.defer(() -> {
+            Timer.Sample sample = metrics.startSample();
+            Integer attemptNumber = message.payload() != null ? message.payload().getAttemptNumber() : null;
+
+            Mono<String> outcome;
+            if (message.payload() == null) {
+                log.warn("Null payload received, sending to DLT");
+                outcome = routeFailure(message, attemptNumber, new IllegalArgumentException("Undecodable record"));
+            } else {
+                outcome = limiter.limit(processingService.processShipmentEvent(message.payload(), message.rawValue()))
+                        .flatMap(result -> acknowledgeMessage(message, attemptNumber).thenReturn(result.tag()))
+                        .onErrorResume(error -> {
+                            log.error("Error processing shipment event: shipmentId={}",
+                                    message.payload().getShipmentId(), error);
+                            return routeFailure(message, attemptNumber, error);
+                        });
+            }
+            return outcome
+                    .doOnNext(result -> metrics.recordRecord(sample, attemptNumber, result))
+                    .then();
+        }));
+    }
+
+    /**
+     * Acknowledges each record only after the bulkWrite holding it has been acknowledged by Mongo,
+     * so committed offsets never run ahead of durable writes. Records that failed on their own are
+     * routed to the retry topics or the DLT individually.
+     */
+    private Mono<Void> handleBatch(List<EventMessage<ShipmentEvent>> batch) {
+        return metrics.trackInFlight(Mono.defer(() -> {
+            Timer.Sample sample = metrics.startSample();
+            List<EventMessage<ShipmentEvent>> valid = new ArrayList<>(batch.size());
+            List<Mono<Void>> handled = new ArrayList<>(batch.size());
+
+            for (EventMessage<ShipmentEvent> message : batch) {
+                if (message.payload() == null) {
+                    log.warn("Null payload received, sending to DLT");
+                    handled.add(routeFailure(message, null, new IllegalArgumentException("Undecodable record"))
+                            .doOnNext(result -> metrics.recordRecord(sample, null, result))
+                            .then());
+                } else {
+                    valid.add(message);
+                }
             }
-        });
+
+            Mono<Void> processed = processingService.processShipmentBatch(
+                            valid.stream().map(EventMessage::payload).toList(),
+                            valid.stream().map(EventMessage::rawValue).toList())
+                    .flatMapMany(results -> Flux.range(0, results.size())
+                            .flatMap(i -> completeBatchRecord(valid.get(i), results.get(i))
+                                    .doOnNext(result -> metrics.recordRecord(sample,
+                                            valid.get(i).payload().getAttemptNumber(), result))))
+                    .then();
+            handled.add(processed);
+
+            log.debug("Processing batch of {} records", batch.size());
+            return Mono.when(handled);
+        }));
+    }
+
+    private Mono<String> completeBatchRecord(EventMessage<ShipmentEvent> message, ProcessingService.BatchResult result) {
+        Integer attemptNumber = message.payload().getAttemptNumber();
+        if (result.error() != null) {
+            log.error("Error processing shipment event in batch: shipmentId={}",
+                    message.payload().getShipmentId(), result.error());
+            return routeFailure(message, attemptNumber, result.error());
+        }
+        return acknowledgeMessage(message, attemptNumber).thenReturn(result.outcome().tag());
+    }
+
+    private Mono<Void> acknowledgeMessage(EventMessage<?> message, Integer attemptNumber) {
+        return metrics.timeStage(Stage.ACK, attemptNumber, Mono.defer(() -> commitManager.complete(message.offset())),
+                        done -> PipelineMetrics.OUTCOME_SUCCESS)
+                .doOnSuccess(done -> log.debug("Message acknowledged"));
+    }
+
+    /**
+     * Hands the record to the next retry tier or the DLT and acknowledges it once the broker has
+     * confirmed the write. The write is retried with backoff; if it keeps failing the record stays
+     * unacknowledged and the consumer stream fails with {@link UnroutableRecordException}, so it
+     * restarts from the committed offset instead of processing on behind a gap it cannot commit past.
+     */
+    private Mono<String> routeFailure(EventMessage<ShipmentEvent> message, Integer attemptNumber, Throwable error) {
+        ProcessingProperties.Routing routing = processingProperties.getRouting();
+        Mono<FailedRecordRouter.Destination> routed = failedRecordRouter.route(message, error)
+                .retryWhen(Retry.backoff(routing.getMaxRetries(), routing.getBackoff())
+                        .doBeforeRetry(signal -> log.warn("Retrying publish of failed record: partition={}, offset={}, attempt={}",
+                                message.offset().topicPartition(), message.offset().offset(), signal.totalRetries() + 1))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        return metrics.timeStage(Stage.DLT, attemptNumber, routed, FailedRecordRouter.Destination::tag)
+                .flatMap(destination -> acknowledgeMessage(message, attemptNumber).thenReturn(destination.tag()))
+                .onErrorMap(sendError -> !(sendError instanceof UnroutableRecordException), sendError -> {
+                    metrics.routeExhausted();
+                    log.error("Failed to publish failed record, restarting from its offset: partition={}, offset={}",
+                            message.offset().topicPartition(), message.offset().offset(), sendError);
+                    return new UnroutableRecordException(message.offset(), sendError);
+                });
     }
-}
\ No newline at end of file
+}
@@ -3,16 +3,32 @@ package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
 import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
 import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
 import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
 import reactor.kafka.receiver.ReceiverRecord;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Component
@@ -22,20 +38,151 @@ public class KafkaRxConsumer {
     private final ReceiverOptions<String, Object> baseOptions;
     private final KafkaTopicsProperties topics;
     private final EntityMapper mapper;
+    private final OffsetCommitManager commitManager;
+    private final PipelineMetrics metrics;
 
+    @Value("${app.metrics.lag-interval:10s}")
+    private Duration lagInterval;
+
+    @Value("${app.kafka.receivers:1}")
+    private int receivers;
+
+    /**
+     * Records of the main topic. With {@code app.kafka.receivers} above 1, that many receivers join
+     * the consumer group from this instance, each with its own poll thread, client id and publishing
+     * scheduler, and their records are merged. The group spreads partitions across them like across
+     * pods; receivers beyond the partition count stay idle.
+     */
     public Flux<EventMessage<ShipmentEvent>> stream() {
         var options = baseOptions.subscription(Collections.singleton(topics.getMain()));
-        return KafkaReceiver.create(options)
-                .receive()
-                .map(this::toMessage);
+        if (receivers <= 1) {
+            return stream(options);
+        }
+        log.info("Starting {} receivers for topic {}", receivers, topics.getMain());
+        return Flux.merge(IntStream.range(0, receivers)
+                .mapToObj(index -> stream(receiverOptions(options, index)))
+                .toList());
+    }
+
+    /**
+     * Records of every retry tier, each released once its {@code x-retry-due-at} has passed. The
+     * tiers are consumed by a separate receiver in the {@code <group>-retry} group, so waiting on a
+     * retry partition never holds back the main topic.
+     * <p>
+     * A record that is not due yet is not held in memory: its partition is paused and rewound to it,
+     * and resumed once it is due, when the record is fetched again. Records of a rewound partition
+     * that were already fetched are dropped before their offsets are registered.
+     */
+    public Flux<EventMessage<ShipmentEvent>> retryStream() {
+        if (topics.getRetryDelays().isEmpty()) {
+            return Flux.empty();
+        }
+        Map<TopicPartition, Long> rewound = new ConcurrentHashMap<>();
+        var options = baseOptions.subscription(topics.retryTopics())
+                .consumerProperty(ConsumerConfig.GROUP_ID_CONFIG, baseOptions.groupId() + "-retry")
+                .addRevokeListener(partitions -> partitions.forEach(p -> rewound.remove(p.topicPartition())));
+        KafkaReceiver<String, Object> receiver = receiver(options);
+        return receive(receiver, received -> received
+                .concatMap(rec -> awaitDue(receiver, rewound, rec)));
+    }
+
+    private Flux<EventMessage<ShipmentEvent>> stream(ReceiverOptions<String, Object> subscribed) {
+        return receive(receiver(subscribed), Function.identity());
+    }
+
+    private KafkaReceiver<String, Object> receiver(ReceiverOptions<String, Object> subscribed) {
+        return KafkaReceiver.create(subscribed
+                .addRevokeListener(partitions -> commitManager.onPartitionsRevoked(
+                        partitions.stream().map(ReceiverPartition::topicPartition).toList())));
+    }
+
+    private Flux<EventMessage<ShipmentEvent>> receive(KafkaReceiver<String, Object> receiver,
+                                                      Function<Flux<ReceiverRecord<String, Object>>,
+                                                              Flux<ReceiverRecord<String, Object>>> admit) {
+        return Flux.defer(() -> {
+            Disposable lagPolling = pollLag(receiver);
+            return receiver.receive()
+                    .transform(admit)
+                    .doOnNext(rec -> commitManager.register(rec.receiverOffset()))
+                    .map(this::toMessage)
+                    .doFinally(signal -> lagPolling.dispose());
+        });
+    }
+
+    private ReceiverOptions<String, Object> receiverOptions(ReceiverOptions<String, Object> options, int index) {
+        String clientId = baseOptions.groupId() + "-" + index;
+        return options.consumerProperty(ConsumerConfig.CLIENT_ID_CONFIG, clientId)
+                .schedulerSupplier(() -> Schedulers.newSingle(clientId, true));
+    }
+
+    private Mono<ReceiverRecord<String, Object>> awaitDue(KafkaReceiver<String, Object> receiver,
+                                                          Map<TopicPartition, Long> rewound,
+                                                          ReceiverRecord<String, Object> rec) {
+        TopicPartition partition = rec.receiverOffset().topicPartition();
+        Long rewoundTo = rewound.get(partition);
+        if (rewoundTo != null) {
+            if (rec.offset() != rewoundTo) {
+                // fetched before the rewind; it is fetched again after the record we rewound to
+                return Mono.empty();
+            }
+            rewound.remove(partition);
+        }
+        long wait = FailedRecordRouter.dueAt(rec.headers()) - System.currentTimeMillis();
+        if (wait <= 0) {
+            return Mono.just(rec);
+        }
+        rewound.put(partition, rec.offset());
+        return receiver.doOnConsumer(consumer -> {
+                    consumer.pause(List.of(partition));
+                    consumer.seek(partition, rec.offset());
+                    return partition;
+                })
+                .doOnSuccess(paused -> resumeAfter(receiver, partition, Duration.ofMillis(wait)))
+                .then(Mono.<ReceiverRecord<String, Object>>empty())
+                .onErrorResume(error -> {
+                    log.warn("Could not rewind retry partition {}, delivering offset {} now", partition, rec.offset(), error);
+                    rewound.remove(partition);
+                    return Mono.just(rec);
+                });
+    }
+
+    private void resumeAfter(KafkaReceiver<String, Object> receiver, TopicPartition partition, Duration wait) {
+        log.debug("Retry partition {} paused for {}", partition, wait);
+        Mono.delay(wait)
+                .then(receiver.doOnConsumer(consumer -> {
+                    // revoked meanwhile: the new owner starts unpaused from the committed offset
+                    if (consumer.assignment().contains(partition)) {
+                        consumer.resume(List.of(partition));
+                    }
+                    return partition;
+                }))
+                .subscribe(resumed -> { }, error -> log.warn("Could not resume retry partition {}", partition, error));
+    }
+
+    private Disposable pollLag(KafkaReceiver<String, Object> receiver) {
+        // doOnConsumer fails until receive() has created the consumer; those ticks are skipped
+        return Flux.interval(lagInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> receiver.doOnConsumer(metrics::updateLag)
+                        .onErrorResume(error -> Mono.empty()))
+                .subscribe();
     }
 
     private EventMessage<ShipmentEvent> toMessage(ReceiverRecord<String, Object> rec) {
         Object value = rec.value();
         ShipmentEvent event = null;
+        Timer.Sample sample = metrics.startSample();
         try {
-            if (value instanceof GenericRecord gr) {
+            if (value instanceof DecodedShipmentEvent decoded) {
+                event = decoded.event();
+                value = decoded.raw();
+                if (event != null) {
+                    log.info("Event received: shipmentId={}, attemptNumber={}",
+                            event.getShipmentId(), event.getAttemptNumber());
+                }
+            } else if (value instanceof GenericRecord gr) {
                 event = mapper.toEvent(gr);
+                metrics.recordStage(Stage.MAPPING, sample, event.getAttemptNumber(), PipelineMetrics.OUTCOME_SUCCESS);
                 log.info("Event received: shipmentId={}, attemptNumber={}",
                         event.getShipmentId(), event.getAttemptNumber());
             } else {
@@ -43,8 +190,9 @@ public class KafkaRxConsumer {
                         value == null ? "null" : value.getClass());
             }
         } catch (Exception e) {
+            metrics.recordStage(Stage.MAPPING, sample, null, PipelineMetrics.OUTCOME_ERROR);
             log.error("Error mapping Avro -> Event", e);
         }
-        return new EventMessage<>(event, rec.receiverOffset(), value);
+        return new EventMessage<>(event, rec.receiverOffset(), value, rec.headers());
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks record completion per partition and commits only the contiguous low-watermark, so records
+ * finishing out of order never cause an offset to be committed ahead of unfinished work.
+ * Commits are batched: they run every {@code app.kafka.commit.interval} or as soon as
+ * {@code app.kafka.commit.batch-size} records have completed since the last commit.
+ */
+@Slf4j
+@Component
+public class OffsetCommitManager {
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger completedSinceCommit = new AtomicInteger();
+    private final AtomicBoolean committing = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.commit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.kafka.commit.interval:1s}")
+    private Duration interval;
+
+    private Timer commitLatency;
+    private Disposable ticker;
+
+    public OffsetCommitManager(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        commitLatency = Timer.builder("kafka.consumer.commit.latency")
+                .description("Time to commit a batch of partition low-watermarks")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("kafka.consumer.pending.offsets", this, OffsetCommitManager::pendingDepth)
+                .description("Records received but not yet covered by a committed offset")
+                .register(meterRegistry);
+
+        ticker = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> commitPending())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        commitPending().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Must be called in receive order for each partition, before the record is handed to processing.
+     */
+    public void register(ReceiverOffset offset) {
+        partitions.computeIfAbsent(offset.topicPartition(), tp -> new PartitionState())
+                .register(offset);
+    }
+
+    /**
+     * Marks the record done. Only the exact {@link ReceiverOffset} passed to {@link #register} counts,
+     * so a late completion from a receiver that has since lost the partition is ignored.
+     */
+    public Mono<Void> complete(ReceiverOffset offset) {
+        PartitionState state = partitions.get(offset.topicPartition());
+        if (state == null) {
+            log.debug("Completed offset for unassigned partition, ignoring: {}", offset.topicPartition());
+            return Mono.empty();
+        }
+        state.complete(offset);
+
+        if (completedSinceCommit.incrementAndGet() >= batchSize) {
+            return commitPending();
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * Rebalance hook: hands the watermark of each revoked partition to the receiver so it is
+     * committed during the revocation, then forgets the partition.
+     */
+    public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+        for (TopicPartition tp : revoked) {
+            PartitionState state = partitions.remove(tp);
+            if (state != null) {
+                ReceiverOffset watermark = state.takeCommittable();
+                if (watermark != null) {
+                    watermark.acknowledge();
+                }
+                log.info("Partition revoked: {}, dropped {} pending offsets", tp, state.depth());
+            }
+        }
+    }
+
+    private Mono<Void> commitPending() {
+        return Mono.defer(this::commitWatermarks);
+    }
+
+    private Mono<Void> commitWatermarks() {
+        if (!committing.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        completedSinceCommit.set(0);
+
+        List<Watermark> watermarks = new ArrayList<>();
+        partitions.values().forEach(state -> {
+            ReceiverOffset watermark = state.takeCommittable();
+            if (watermark != null) {
+                watermarks.add(new Watermark(state, watermark));
+            }
+        });
+
+        if (watermarks.isEmpty()) {
+            committing.set(false);
+            return Mono.empty();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Flux.fromIterable(watermarks)
+                .flatMap(watermark -> watermark.offset().commit()
+                        .onErrorResume(error -> {
+                            // put it back so the next tick retries it, even if the partition stays idle
+                            log.error("Failed to commit offset {} for {}", watermark.offset().offset(),
+                                    watermark.offset().topicPartition(), error);
+                            watermark.state().restore(watermark.offset());
+                            return Mono.empty();
+                        }))
+                .then()
+                .doOnSuccess(done -> log.debug("Committed offsets for {} partitions", watermarks.size()))
+                .doFinally(signal -> {
+                    sample.stop(commitLatency);
+                    committing.set(false);
+                });
+    }
+
+    private double pendingDepth() {
+        return partitions.values().stream().mapToInt(PartitionState::depth).sum();
+    }
+
+    private record Watermark(PartitionState state, ReceiverOffset offset) {
+    }
+
+    private static final class PartitionState {
+        private final TreeMap<Long, ReceiverOffset> pending = new TreeMap<>();
+        private final Set<Long> completed = new HashSet<>();
+        private ReceiverOffset committable;
+        private int uncommitted;
+
+        synchronized void register(ReceiverOffset offset) {
+            pending.put(offset.offset(), offset);
+        }
+
+        synchronized void complete(ReceiverOffset offset) {
+            // only the record registered at this offset counts: an offset never registered or dropped by
+            // a revoke must not linger, and a record of a previous owner (another receiver of this
+            // instance, or an earlier assignment) must not complete the current owner's record
+            if (pending.get(offset.offset()) != offset) {
+                return;
+            }
+            completed.add(offset.offset());
+            while (!pending.isEmpty() && completed.remove(pending.firstKey())) {
+                committable = pending.pollFirstEntry().getValue();
+                uncommitted++;
+            }
+        }
+
+        synchronized ReceiverOffset takeCommittable() {
+            ReceiverOffset watermark = committable;
+            committable = null;
+            uncommitted = 0;
+            return watermark;
+        }
+
+        /**
+         * Reinstates a watermark whose commit failed, unless a newer one was set meanwhile.
+         */
+        synchronized void restore(ReceiverOffset watermark) {
+            if (committable == null) {
+                committable = watermark;
+            }
+        }
+
+        synchronized int depth() {
+            return pending.size() + uncommitted;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.model.RawAvroPayload;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics.Stage;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes {@code ShipmentEvent} records straight into the domain {@link ShipmentEvent}, without
+ * building a {@code GenericRecord}. Writer schemas are fetched from the registry once per schema id;
+ * when the writer schema matches ShipmentEvent.avsc the fields are read in order directly, otherwise
+ * a cached {@link ResolvingDecoder} applies the usual Avro schema-evolution rules.
+ * <p>
+ * A record that cannot be decoded (unknown magic byte, unresolvable schema, corrupt body) is
+ * returned as a {@link DecodedShipmentEvent} without event, never as an exception.
+ * <p>
+ * Decode time is recorded as the {@code mapping} stage when a {@link PipelineMetrics} instance is
+ * passed under {@link #PIPELINE_METRICS_CONFIG}. A {@link SchemaRegistryClient} passed under
+ * {@link #SCHEMA_REGISTRY_CLIENT_CONFIG} is used instead of a client of its own.
+ * <p>
+ * Not thread-safe: Kafka creates one deserializer per consumer and calls it from the poll thread.
+ */
+@Slf4j
+public class ShipmentEventDeserializer implements Deserializer<Object> {
+
+    public static final String PIPELINE_METRICS_CONFIG = "shipment.pipeline.metrics";
+    public static final String SCHEMA_REGISTRY_CLIENT_CONFIG = "shipment.schema.registry.client";
+
+    private static final Schema READER_SCHEMA = com.logistics.events.ShipmentEvent.getClassSchema();
+    private static final long READER_FINGERPRINT = SchemaNormalization.parsingFingerprint64(READER_SCHEMA);
+    private static final byte MAGIC_BYTE = 0x0;
+    private static final int UNKNOWN_SCHEMA_ID = -1;
+
+    private record WriterPlan(long fingerprint, ResolvingDecoder resolver) {
+        boolean direct() {
+            return resolver == null;
+        }
+    }
+
+    private final Map<Integer, WriterPlan> plans = new ConcurrentHashMap<>();
+    private SchemaRegistryClient registry;
+    private PipelineMetrics metrics;
+    private BinaryDecoder reusableDecoder;
+
+    public ShipmentEventDeserializer() {
+    }
+
+    public ShipmentEventDeserializer(SchemaRegistryClient registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (registry == null && configs.get(SCHEMA_REGISTRY_CLIENT_CONFIG) instanceof SchemaRegistryClient shared) {
+            registry = shared;
+        }
+        if (registry == null) {
+            String urls = String.valueOf(configs.get("schema.registry.url"));
+            registry = new CachedSchemaRegistryClient(Arrays.asList(urls.split(",")), 1000, configs);
+        }
+        if (configs.get(PIPELINE_METRICS_CONFIG) instanceof PipelineMetrics pipelineMetrics) {
+            metrics = pipelineMetrics;
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.wrap(data);
+        if (data.length < RawAvroPayload.BODY_OFFSET || header.get() != MAGIC_BYTE) {
+            return undecodable(topic, new RawAvroPayload(UNKNOWN_SCHEMA_ID, 0L, data), "unknown magic byte", null);
+        }
+        int schemaId = header.getInt();
+
+        WriterPlan plan;
+        try {
+            plan = plans.computeIfAbsent(schemaId, this::resolve);
+        } catch (SerializationException e) {
+            // not cached: the lookup is tried again for the next record with this schema id
+            return undecodable(topic, new RawAvroPayload(schemaId, 0L, data), "schema " + schemaId + " not resolved", e);
+        }
+        RawAvroPayload raw = new RawAvroPayload(schemaId, plan.fingerprint(), data);
+
+        Timer.Sample sample = metrics != null ? metrics.startSample() : null;
+        try {
+            reusableDecoder = DecoderFactory.get().binaryDecoder(data, RawAvroPayload.BODY_OFFSET,
+                    data.length - RawAvroPayload.BODY_OFFSET, reusableDecoder);
+            ShipmentEvent event = plan.direct() ? readDirect(reusableDecoder) : readResolved(plan.resolver(), reusableDecoder);
+            if (sample != null) {
+                metrics.recordStage(Stage.MAPPING, sample, event.getAttemptNumber(), PipelineMetrics.OUTCOME_SUCCESS);
+            }
+            return new DecodedShipmentEvent(event, raw);
+        } catch (IOException | RuntimeException e) {
+            if (sample != null) {
+                metrics.recordStage(Stage.MAPPING, sample, null, PipelineMetrics.OUTCOME_ERROR);
+            }
+            log.error("Failed to decode ShipmentEvent: topic={}, schemaId={}", topic, schemaId, e);
+            return new DecodedShipmentEvent(null, raw);
+        }
+    }
+
+    /**
+     * Throwing here would terminate the receiver flux, so an undecodable record becomes a null-payload
+     * value that {@code KafkaConsumerRunner} routes to the DLT, original bytes included.
+     */
+    private DecodedShipmentEvent undecodable(String topic, RawAvroPayload raw, String reason, Exception cause) {
+        if (metrics != null) {
+            metrics.recordStage(Stage.MAPPING, metrics.startSample(), null, PipelineMetrics.OUTCOME_ERROR);
+        }
+        log.error("Undecodable ShipmentEvent record: topic={}, reason={}", topic, reason, cause);
+        return new DecodedShipmentEvent(null, raw);
+    }
+
+    private WriterPlan resolve(int schemaId) {
+        try {
+            Schema writer = ((AvroSchema) registry.getSchemaById(schemaId)).rawSchema();
+            long fingerprint = SchemaNormalization.parsingFingerprint64(writer);
+            if (fingerprint == READER_FINGERPRINT) {
+                return new WriterPlan(fingerprint, null);
+            }
+            log.info("Writer schema {} differs from ShipmentEvent.avsc, decoding with schema resolution", schemaId);
+            return new WriterPlan(fingerprint, DecoderFactory.get().resolvingDecoder(writer, READER_SCHEMA, null));
+        } catch (Exception e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + schemaId, e);
+        }
+    }
+
+    private ShipmentEvent readDirect(BinaryDecoder in) throws IOException {
+        return ShipmentEvent.builder()
+                .eventId(in.readString())
+                .shipmentId(in.readString())
+                .orderId(in.readString())
+                .customerId(in.readString())
+                .address(in.readString())
+                .city(in.readString())
+                .postalCode(in.readString())
+                .serviceLevel(in.readString())
+                .requestedAt(in.readLong())
+                .attemptNumber(in.readInt())
+                .correlationId(in.readString())
+                .status(in.readString())
+                .build();
+    }
+
+    private ShipmentEvent readResolved(ResolvingDecoder resolver, BinaryDecoder in) throws IOException {
+        resolver.configure(in);
+        ShipmentEvent.ShipmentEventBuilder builder = ShipmentEvent.builder();
+        for (Schema.Field field : resolver.readFieldOrder()) {
+            switch (field.name()) {
+                case "eventId" -> builder.eventId(resolver.readString());
+                case "shipmentId" -> builder.shipmentId(resolver.readString());
+                case "orderId" -> builder.orderId(resolver.readString());
+                case "customerId" -> builder.customerId(resolver.readString());
+                case "address" -> builder.address(resolver.readString());
+                case "city" -> builder.city(resolver.readString());
+                case "postalCode" -> builder.postalCode(resolver.readString());
+                case "serviceLevel" -> builder.serviceLevel(resolver.readString());
+                case "requestedAt" -> builder.requestedAt(resolver.readLong());
+                case "attemptNumber" -> builder.attemptNumber(resolver.readInt());
+                case "correlationId" -> builder.correlationId(resolver.readString());
+                case "status" -> builder.status(resolver.readString());
+                default -> throw new IOException("Unexpected reader field " + field.name());
+            }
+        }
+        resolver.drain();
+        return builder.build();
+    }
+}
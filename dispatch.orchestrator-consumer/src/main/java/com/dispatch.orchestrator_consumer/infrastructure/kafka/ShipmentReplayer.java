@@ -0,0 +1,395 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ReplayCheckpointEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ReplayCheckpointEntity.Status;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ReplayRange;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ReplayCheckpointRepository;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ProcessingService;
+import com.logistics.dispatch_orchestrator_consumer.domain.service.ProcessingService.BatchResult;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Reprocesses a bounded range of the main topic, a retry tier or the DLT, outside the live consumer.
+ * Each job reads its partitions with a plain assigned {@link KafkaConsumer} (no consumer group, no
+ * commits) and hands every poll to {@link ProcessingService#processShipmentBatch}, so it applies the
+ * same attempt-1/attempt-2 rules as live traffic and writes with one unordered bulk upsert per round.
+ * <p>
+ * Progress is checkpointed in {@code replay_checkpoints} after every batch, as the next offset of
+ * each partition, so a failed, cancelled or interrupted job resumes where it stopped. Throughput is
+ * capped at {@code maxRate} records per second, and a poll never returns more than one second's worth
+ * of records, so a replay cannot burst past the cap. Records that fail are counted and logged with
+ * their offset but not rerouted: they stay in the source topic for another replay.
+ */
+@Slf4j
+@Component
+public class ShipmentReplayer {
+
+    private final ReceiverOptions<String, Object> baseOptions;
+    private final KafkaTopicsProperties topics;
+    private final EntityMapper mapper;
+    private final ProcessingService processingService;
+    private final ReplayCheckpointRepository checkpointRepository;
+    private final Meter.MeterProvider<Counter> recordCounters;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+
+    @Value("${app.replay.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${app.replay.max-rate:2000}")
+    private long defaultMaxRate;
+
+    @Value("${app.replay.poll-timeout:1s}")
+    private Duration pollTimeout;
+
+    public ShipmentReplayer(ReceiverOptions<String, Object> baseOptions,
+                            KafkaTopicsProperties topics,
+                            EntityMapper mapper,
+                            ProcessingService processingService,
+                            ReplayCheckpointRepository checkpointRepository,
+                            MeterRegistry meterRegistry) {
+        this.baseOptions = baseOptions;
+        this.topics = topics;
+        this.mapper = mapper;
+        this.processingService = processingService;
+        this.checkpointRepository = checkpointRepository;
+        this.recordCounters = Counter.builder("shipment.replay.records")
+                .description("Records reprocessed by replay jobs, by outcome")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Resolves the range to offsets, stores the job's first checkpoint and starts it in the
+     * background. Emits the checkpoint; fails with IllegalArgumentException for a topic or range that
+     * cannot be replayed and IllegalStateException when the job id is taken.
+     */
+    public Mono<ReplayCheckpointEntity> start(ReplayRange range) {
+        String topic = range.getTopic() != null ? range.getTopic() : topics.getMain();
+        if (!replayableTopics().contains(topic)) {
+            return Mono.error(new IllegalArgumentException("Topic cannot be replayed: " + topic));
+        }
+        long maxRate = range.getMaxRate() != null ? range.getMaxRate() : defaultMaxRate;
+        if (maxRate < 0) {
+            return Mono.error(new IllegalArgumentException("maxRate must be positive, or 0 for no cap"));
+        }
+        String jobId = range.getJobId() != null ? range.getJobId() : UUID.randomUUID().toString();
+
+        return reserve(jobId, () -> Mono.fromCallable(() -> plan(jobId, topic, range, maxRate))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(checkpointRepository::insert)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalStateException("Replay job already exists, resume it instead: " + jobId)));
+    }
+
+    /**
+     * Restarts a job that is not running from its last checkpoint.
+     */
+    public Mono<ReplayCheckpointEntity> resume(String jobId) {
+        return checkpointRepository.findById(jobId)
+                .flatMap(checkpoint -> {
+                    if (checkpoint.getStatus() == Status.COMPLETED) {
+                        return Mono.error(new IllegalStateException("Replay job already completed: " + jobId));
+                    }
+                    return reserve(jobId, () -> {
+                        checkpoint.setStatus(Status.RUNNING);
+                        checkpoint.setUpdatedAt(System.currentTimeMillis());
+                        return checkpointRepository.save(checkpoint);
+                    });
+                });
+    }
+
+    /**
+     * Asks a running job to stop after its current batch; the job then records itself as CANCELLED.
+     * A job left RUNNING by a stopped instance is marked CANCELLED directly.
+     */
+    public Mono<ReplayCheckpointEntity> cancel(String jobId) {
+        AtomicBoolean cancelled = running.get(jobId);
+        if (cancelled != null) {
+            cancelled.set(true);
+            return checkpointRepository.findById(jobId);
+        }
+        return checkpointRepository.findById(jobId)
+                .flatMap(checkpoint -> {
+                    if (checkpoint.getStatus() != Status.RUNNING) {
+                        return Mono.just(checkpoint);
+                    }
+                    checkpoint.setStatus(Status.CANCELLED);
+                    checkpoint.setUpdatedAt(System.currentTimeMillis());
+                    return checkpointRepository.save(checkpoint);
+                });
+    }
+
+    public Mono<ReplayCheckpointEntity> status(String jobId) {
+        return checkpointRepository.findById(jobId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running.values().forEach(cancelled -> cancelled.set(true));
+    }
+
+    /**
+     * Marks the job as running on this instance before {@code prepare} stores its checkpoint, so two
+     * concurrent start/resume calls cannot launch it twice.
+     */
+    private Mono<ReplayCheckpointEntity> reserve(String jobId, Supplier<Mono<ReplayCheckpointEntity>> prepare) {
+        return Mono.defer(() -> {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            if (running.putIfAbsent(jobId, cancelled) != null) {
+                return Mono.error(new IllegalStateException("Replay job is already running: " + jobId));
+            }
+            return prepare.get()
+                    .doOnNext(checkpoint -> launch(checkpoint, cancelled))
+                    .doOnError(error -> running.remove(jobId, cancelled))
+                    .doOnCancel(() -> running.remove(jobId, cancelled));
+        });
+    }
+
+    private void launch(ReplayCheckpointEntity checkpoint, AtomicBoolean cancelled) {
+        // the job blocks on Kafka polls and on each bulk write, so it runs on a blocking-capable worker
+        Mono.fromRunnable(() -> run(checkpoint, cancelled))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> running.remove(checkpoint.getId(), cancelled))
+                .subscribe();
+    }
+
+    private ReplayCheckpointEntity plan(String jobId, String topic, ReplayRange range, long maxRate) {
+        try (Consumer<String, Object> consumer = createConsumer(jobId, 1)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(topic);
+            List<TopicPartition> partitions = (infos != null ? infos : List.<PartitionInfo>of()).stream()
+                    .filter(info -> range.getPartitions() == null || range.getPartitions().isEmpty()
+                            || range.getPartitions().contains(info.partition()))
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            if (partitions.isEmpty()) {
+                throw new IllegalArgumentException("No partitions to replay for topic " + topic);
+            }
+
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> fromTimes = range.getFromOffset() == null && range.getFromTimestamp() != null
+                    ? offsetsForTimes(consumer, partitions, range.getFromTimestamp(), end)
+                    : Map.of();
+            Map<TopicPartition, Long> toTimes = range.getToOffset() == null && range.getToTimestamp() != null
+                    ? offsetsForTimes(consumer, partitions, range.getToTimestamp(), end)
+                    : Map.of();
+
+            Map<String, Long> nextOffsets = new TreeMap<>();
+            Map<String, Long> endOffsets = new TreeMap<>();
+            for (TopicPartition tp : partitions) {
+                long first = beginning.get(tp);
+                long last = end.get(tp);
+                long from = range.getFromOffset() != null ? range.getFromOffset() : fromTimes.getOrDefault(tp, first);
+                long to = range.getToOffset() != null ? range.getToOffset() : toTimes.getOrDefault(tp, last);
+                from = Math.max(first, Math.min(from, last));
+                nextOffsets.put(String.valueOf(tp.partition()), from);
+                endOffsets.put(String.valueOf(tp.partition()), Math.max(from, Math.min(to, last)));
+            }
+
+            long now = System.currentTimeMillis();
+            ReplayCheckpointEntity checkpoint = new ReplayCheckpointEntity();
+            checkpoint.setId(jobId);
+            checkpoint.setTopic(topic);
+            checkpoint.setNextOffsets(nextOffsets);
+            checkpoint.setEndOffsets(endOffsets);
+            checkpoint.setMaxRate(maxRate);
+            checkpoint.setStatus(Status.RUNNING);
+            checkpoint.setStartedAt(now);
+            checkpoint.setUpdatedAt(now);
+            return checkpoint;
+        }
+    }
+
+    private void run(ReplayCheckpointEntity checkpoint, AtomicBoolean cancelled) {
+        String topic = checkpoint.getTopic();
+        log.info("Replay {} started: topic={}, from={}, to={}, maxRate={}/s", checkpoint.getId(), topic,
+                checkpoint.getNextOffsets(), checkpoint.getEndOffsets(), checkpoint.getMaxRate());
+
+        int maxPollRecords = checkpoint.getMaxRate() > 0 ? (int) Math.min(batchSize, checkpoint.getMaxRate()) : batchSize;
+        try (Consumer<String, Object> consumer = createConsumer(checkpoint.getId(), maxPollRecords)) {
+            Map<TopicPartition, Long> end = new HashMap<>();
+            checkpoint.getEndOffsets().forEach((partition, offset) ->
+                    end.put(new TopicPartition(topic, Integer.parseInt(partition)), offset));
+            Set<TopicPartition> remaining = new HashSet<>();
+            end.forEach((tp, stop) -> {
+                if (nextOffset(checkpoint, tp) < stop) {
+                    remaining.add(tp);
+                }
+            });
+            consumer.assign(remaining);
+            remaining.forEach(tp -> consumer.seek(tp, nextOffset(checkpoint, tp)));
+
+            while (!remaining.isEmpty() && !cancelled.get()) {
+                long started = System.nanoTime();
+                List<ConsumerRecord<String, Object>> batch = new ArrayList<>();
+                for (ConsumerRecord<String, Object> rec : consumer.poll(pollTimeout)) {
+                    if (rec.offset() < end.get(new TopicPartition(rec.topic(), rec.partition()))) {
+                        batch.add(rec);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    replayBatch(checkpoint, batch).block();
+                }
+
+                // every polled record is handled, so the position is the next offset to replay; it also
+                // steps over offsets that never come back as records (transaction markers, compaction)
+                Set<TopicPartition> done = new HashSet<>();
+                for (TopicPartition tp : remaining) {
+                    long next = Math.min(consumer.position(tp), end.get(tp));
+                    checkpoint.getNextOffsets().put(String.valueOf(tp.partition()), next);
+                    if (next >= end.get(tp)) {
+                        done.add(tp);
+                    }
+                }
+                if (!done.isEmpty()) {
+                    consumer.pause(done);
+                    remaining.removeAll(done);
+                }
+                if (!batch.isEmpty() || !done.isEmpty()) {
+                    checkpoint.setUpdatedAt(System.currentTimeMillis());
+                    checkpointRepository.save(checkpoint).block();
+                }
+                throttle(batch.size(), checkpoint.getMaxRate(), started);
+            }
+            checkpoint.setStatus(remaining.isEmpty() ? Status.COMPLETED : Status.CANCELLED);
+        } catch (Exception e) {
+            log.error("Replay {} failed, resume it to continue from the last checkpoint", checkpoint.getId(), e);
+            checkpoint.setStatus(Status.FAILED);
+            checkpoint.setLastError(String.valueOf(e.getMessage()));
+        }
+
+        checkpoint.setUpdatedAt(System.currentTimeMillis());
+        checkpointRepository.save(checkpoint)
+                .doOnError(error -> log.error("Failed to save final checkpoint of replay {}", checkpoint.getId(), error))
+                .onErrorResume(error -> Mono.empty())
+                .block();
+        log.info("Replay {} {}: processed={}, failed={}", checkpoint.getId(), checkpoint.getStatus(),
+                checkpoint.getProcessed(), checkpoint.getFailed());
+    }
+
+    private Mono<Void> replayBatch(ReplayCheckpointEntity checkpoint, List<ConsumerRecord<String, Object>> batch) {
+        List<ConsumerRecord<String, Object>> decoded = new ArrayList<>(batch.size());
+        List<ShipmentEvent> events = new ArrayList<>(batch.size());
+        List<Object> rawValues = new ArrayList<>(batch.size());
+        for (ConsumerRecord<String, Object> rec : batch) {
+            Object value = rec.value();
+            ShipmentEvent event = null;
+            if (value instanceof DecodedShipmentEvent decodedEvent) {
+                event = decodedEvent.event();
+                value = decodedEvent.raw();
+            } else if (value instanceof GenericRecord gr) {
+                try {
+                    event = mapper.toEvent(gr);
+                } catch (Exception e) {
+                    log.debug("Error mapping Avro -> Event during replay", e);
+                }
+            }
+            if (event == null) {
+                recordFailure(checkpoint, rec, "Undecodable record");
+                continue;
+            }
+            decoded.add(rec);
+            events.add(event);
+            rawValues.add(value);
+        }
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return processingService.processShipmentBatch(events, rawValues)
+                .doOnNext(results -> {
+                    for (int i = 0; i < results.size(); i++) {
+                        BatchResult result = results.get(i);
+                        if (result.error() != null) {
+                            recordFailure(checkpoint, decoded.get(i), result.error().getMessage());
+                        } else {
+                            checkpoint.setProcessed(checkpoint.getProcessed() + 1);
+                            recordCounters.withTags("outcome", result.outcome().tag()).increment();
+                        }
+                    }
+                })
+                .then();
+    }
+
+    private void recordFailure(ReplayCheckpointEntity checkpoint, ConsumerRecord<String, Object> rec, String reason) {
+        checkpoint.setFailed(checkpoint.getFailed() + 1);
+        checkpoint.setLastError(rec.partition() + "@" + rec.offset() + ": " + reason);
+        recordCounters.withTags("outcome", PipelineMetrics.OUTCOME_ERROR).increment();
+        log.warn("Replay {} could not process record: partition={}, offset={}, reason={}",
+                checkpoint.getId(), rec.partition(), rec.offset(), reason);
+    }
+
+    private Consumer<String, Object> createConsumer(String jobId, int maxPollRecords) {
+        Map<String, Object> props = new HashMap<>(baseOptions.consumerProperties());
+        // partitions are assigned explicitly: a replay never joins, rebalances or commits the live group
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, baseOptions.groupId() + "-replay-" + jobId);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new KafkaConsumer<>(props);
+    }
+
+    private List<String> replayableTopics() {
+        List<String> replayable = new ArrayList<>(topics.retryTopics());
+        replayable.add(topics.getMain());
+        replayable.add(topics.getDlt());
+        return replayable;
+    }
+
+    private static long nextOffset(ReplayCheckpointEntity checkpoint, TopicPartition tp) {
+        return checkpoint.getNextOffsets().get(String.valueOf(tp.partition()));
+    }
+
+    private static Map<TopicPartition, Long> offsetsForTimes(Consumer<?, ?> consumer, List<TopicPartition> partitions,
+                                                             long timestamp, Map<TopicPartition, Long> end) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(tp -> query.put(tp, timestamp));
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        // a partition with no record at or after the timestamp resolves to its end
+        consumer.offsetsForTimes(query).forEach((tp, found) -> offsets.put(tp, found != null ? found.offset() : end.get(tp)));
+        return offsets;
+    }
+
+    private static void throttle(int records, long maxRate, long startedNanos) throws InterruptedException {
+        if (maxRate <= 0 || records == 0) {
+            return;
+        }
+        long remainingNanos = records * 1_000_000_000L / maxRate - (System.nanoTime() - startedNanos);
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+}
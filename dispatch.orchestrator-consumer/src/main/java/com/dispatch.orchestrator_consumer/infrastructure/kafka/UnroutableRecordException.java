@@ -0,0 +1,14 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka;
+
+import reactor.kafka.receiver.ReceiverOffset;
+
+/**
+ * A failed record could not be published to a retry topic or the DLT, even after retrying. Ends the
+ * consumer stream so it restarts from the committed offsets, which stop right before this record.
+ */
+class UnroutableRecordException extends RuntimeException {
+
+    UnroutableRecordException(ReceiverOffset offset, Throwable cause) {
+        super("Could not route failed record " + offset.topicPartition() + "@" + offset.offset(), cause);
+    }
+}
@@ -0,0 +1,157 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Meters for the consumer pipeline:
+ * <ul>
+ *   <li>{@code shipment.pipeline.stage} timer per stage (mapping, dedupe, snapshot, mongo, ack, dlt),
+ *       tagged with the attempt number and the stage outcome (hit/miss, inserted/duplicate, error...)</li>
+ *   <li>{@code shipment.pipeline.record} timer from start of processing to acknowledgement, tagged with
+ *       the attempt number and the final outcome (inserted, duplicate, merged, requeued, retry, dlt, error)</li>
+ *   <li>{@code shipment.pipeline.in-flight} gauge of records currently being processed</li>
+ *   <li>{@code shipment.pipeline.route.exhausted} counter of failed records that could not be published
+ *       to a retry topic or the DLT after every retry</li>
+ *   <li>{@code kafka.consumer.partition.lag} gauge per assigned partition</li>
+ * </ul>
+ */
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        MAPPING, DEDUPE, SNAPSHOT, MONGO, ACK, DLT;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> stageTimers;
+    private final Meter.MeterProvider<Timer> recordTimers;
+    private final Counter routeExhausted;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<TopicPartition, PartitionLag> partitionLag = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stageTimers = Timer.builder("shipment.pipeline.stage")
+                .description("Time spent in each stage of the consumer pipeline")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.recordTimers = Timer.builder("shipment.pipeline.record")
+                .description("Time from start of processing to acknowledgement, by final outcome")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.routeExhausted = Counter.builder("shipment.pipeline.route.exhausted")
+                .description("Failed records not published to a retry topic or the DLT after every retry")
+                .register(meterRegistry);
+        Gauge.builder("shipment.pipeline.in-flight", inFlight, AtomicInteger::get)
+                .description("Records currently being processed")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample startSample() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordStage(Stage stage, Timer.Sample sample, Integer attemptNumber, String outcome) {
+        sample.stop(stageTimers.withTags("stage", stage.tag, "attempt", attemptTag(attemptNumber), "outcome", outcome));
+    }
+
+    public void recordRecord(Timer.Sample sample, Integer attemptNumber, String outcome) {
+        sample.stop(recordTimers.withTags("attempt", attemptTag(attemptNumber), "outcome", outcome));
+    }
+
+    /**
+     * Times {@code source} as {@code stage}. {@code outcome} maps the emitted value (null when the
+     * Mono completes empty) to the outcome tag; errors are tagged {@value #OUTCOME_ERROR}.
+     */
+    public <T> Mono<T> timeStage(Stage stage, Integer attemptNumber, Mono<T> source, Function<? super T, String> outcome) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = startSample();
+            return source
+                    .doOnSuccess(value -> recordStage(stage, sample, attemptNumber, outcome.apply(value)))
+                    .doOnError(error -> recordStage(stage, sample, attemptNumber, OUTCOME_ERROR));
+        });
+    }
+
+    public <T> Mono<T> trackInFlight(Mono<T> source) {
+        return Mono.defer(() -> {
+            inFlight.incrementAndGet();
+            return source.doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public void routeExhausted() {
+        routeExhausted.increment();
+    }
+
+    /**
+     * Refreshes the lag gauges from the consumer's cached end offsets; must run on the consumer
+     * thread. A gauge belongs to the consumer that last reported its partition, and is removed when
+     * that consumer no longer has the partition assigned, so several consumers in one instance (main,
+     * retry, or multiple receivers of one topic) never remove each other's gauges. Returns the
+     * assigned partition count.
+     */
+    public int updateLag(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        for (TopicPartition tp : assignment) {
+            consumer.currentLag(tp).ifPresent(lag -> {
+                PartitionLag partition = partitionLag.computeIfAbsent(tp, this::registerLag);
+                partition.owner().set(consumer);
+                partition.value().set(lag);
+            });
+        }
+        partitionLag.entrySet().removeIf(entry -> {
+            if (entry.getValue().owner().get() != consumer || assignment.contains(entry.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue().gauge());
+            return true;
+        });
+        return assignment.size();
+    }
+
+    private PartitionLag registerLag(TopicPartition tp) {
+        AtomicLong value = new AtomicLong();
+        Gauge gauge = Gauge.builder("kafka.consumer.partition.lag", value, AtomicLong::get)
+                .description("Records between the consumer position and the end of the partition")
+                .tags("topic", tp.topic(), "partition", String.valueOf(tp.partition()))
+                .strongReference(true)
+                .register(meterRegistry);
+        return new PartitionLag(value, gauge, new AtomicReference<>());
+    }
+
+    private static String attemptTag(Integer attemptNumber) {
+        if (attemptNumber == null) {
+            return "unknown";
+        }
+        return attemptNumber == 1 || attemptNumber == 2 ? attemptNumber.toString() : "other";
+    }
+
+    private record PartitionLag(AtomicLong value, Gauge gauge, AtomicReference<Consumer<?, ?>> owner) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.mongo;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.PipelineMetrics;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves shipments out of the hot {@code shipments_queue} collection into the archive collection, so
+ * the hot indexes and working set only cover recent shipments. A shipment is archived once it was
+ * received more than {@code app.archive.max-age} ago, or completed (second attempt processed) more
+ * than {@code app.archive.completed-age} ago. Reads and duplicate checks in
+ * {@link ShipmentRepositoryCustomImpl} cover both collections.
+ * <p>
+ * Every {@code app.archive.interval} a run copies eligible documents in batches of
+ * {@code app.archive.batch-size} (upserts, so a batch interrupted between copy and delete is simply
+ * copied again) and then deletes them from the hot collection. Runs are skipped while the pipeline has
+ * {@code app.archive.busy-in-flight} or more records in flight, and batches are spaced by
+ * {@code app.archive.pause}, or {@code app.archive.busy-pause} when ingest picks up mid-run.
+ */
+@Slf4j
+@Component
+public class ShipmentArchiver {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PipelineMetrics pipelineMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.collection:shipments_archive}")
+    private String archiveCollection;
+
+    @Value("${app.archive.max-age:30d}")
+    private Duration maxAge;
+
+    @Value("${app.archive.completed-age:7d}")
+    private Duration completedAge;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.interval:5m}")
+    private Duration interval;
+
+    @Value("${app.archive.pause:200ms}")
+    private Duration pause;
+
+    @Value("${app.archive.busy-pause:5s}")
+    private Duration busyPause;
+
+    @Value("${app.archive.busy-in-flight:16}")
+    private int busyInFlight;
+
+    private String hotCollection;
+    private Counter moved;
+    private Timer batchLatency;
+    private Disposable ticker;
+
+    public ShipmentArchiver(ReactiveMongoTemplate mongoTemplate, PipelineMetrics pipelineMetrics, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        hotCollection = mongoTemplate.getCollectionName(ShipmentEntity.class);
+        moved = Counter.builder("shipment.archive.moved")
+                .description("Shipments moved from the hot collection to the archive")
+                .register(meterRegistry);
+        batchLatency = Timer.builder("shipment.archive.batch")
+                .description("Time to copy and delete one archival batch")
+                .register(meterRegistry);
+
+        ticker = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> archiveEligible()
+                        .onErrorResume(error -> {
+                            log.warn("Archival run failed, retrying on the next interval", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+
+        log.info("Shipment archival enabled: collection={}, maxAge={}, completedAge={}, batchSize={}, interval={}",
+                archiveCollection, maxAge, completedAge, batchSize, interval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    /**
+     * Archives every eligible shipment, batch by batch. Emits the number of documents read as
+     * eligible, or nothing when the run is skipped because ingest is busy.
+     */
+    public Mono<Long> archiveEligible() {
+        return Mono.defer(() -> {
+            if (busy()) {
+                log.debug("Skipping archival run: {} records in flight", pipelineMetrics.inFlight());
+                return Mono.empty();
+            }
+            return archiveBatch()
+                    .expand(count -> count < batchSize ? Mono.empty() : throttle().then(archiveBatch()))
+                    .reduce(0L, Long::sum)
+                    .doOnNext(total -> {
+                        if (total > 0) {
+                            log.info("Archival run finished: {} shipments moved to {}", total, archiveCollection);
+                        }
+                    });
+        });
+    }
+
+    private Mono<Integer> archiveBatch() {
+        Criteria eligible = eligible(System.currentTimeMillis());
+        return mongoTemplate.find(Query.query(eligible).limit(batchSize), Document.class, hotCollection)
+                .collectList()
+                .flatMap(documents -> documents.isEmpty()
+                        ? Mono.just(0)
+                        : move(documents, eligible).thenReturn(documents.size()));
+    }
+
+    private Mono<Void> move(List<Document> documents, Criteria eligible) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Object> ids = documents.stream().map(document -> document.get("_id")).toList();
+        List<WriteModel<Document>> copies = documents.stream()
+                .<WriteModel<Document>>map(document -> new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")),
+                        document, new ReplaceOptions().upsert(true)))
+                .toList();
+
+        return mongoTemplate.getCollection(archiveCollection)
+                .flatMap(collection -> Mono.from(collection.bulkWrite(copies, new BulkWriteOptions().ordered(false))))
+                // delete only what is still eligible: a shipment rewritten since it was read stays hot
+                .then(mongoTemplate.remove(Query.query(new Criteria().andOperator(
+                        Criteria.where("_id").in(ids), eligible)), hotCollection))
+                .flatMap(result -> {
+                    moved.increment(result.getDeletedCount());
+                    log.debug("Archived {} of {} shipments", result.getDeletedCount(), documents.size());
+                    return result.getDeletedCount() < documents.size() ? dropStaleCopies(ids) : Mono.empty();
+                })
+                .doOnSuccess(done -> sample.stop(batchLatency))
+                .then();
+    }
+
+    /**
+     * Removes the archive copies of shipments that stayed hot because they were rewritten between
+     * the copy and the delete, so listings never return a shipment from both collections. A rewrite
+     * after the delete removes the copy itself, through {@code deleteArchived}.
+     */
+    private Mono<Void> dropStaleCopies(List<Object> ids) {
+        Query stillHot = Query.query(Criteria.where("_id").in(ids));
+        stillHot.fields().include("_id");
+        return mongoTemplate.find(stillHot, Document.class, hotCollection)
+                .map(document -> document.get("_id"))
+                .collectList()
+                .flatMap(hot -> hot.isEmpty()
+                        ? Mono.empty()
+                        : mongoTemplate.remove(Query.query(Criteria.where("_id").in(hot)), archiveCollection).then());
+    }
+
+    private Criteria eligible(long now) {
+        return new Criteria().orOperator(
+                Criteria.where("receivedAt").lt(now - maxAge.toMillis()),
+                Criteria.where("status").is("QUEUED_CACHE").and("processedAt").lt(now - completedAge.toMillis()));
+    }
+
+    private Mono<Void> throttle() {
+        return Mono.defer(() -> Mono.delay(busy() ? busyPause : pause)).then();
+    }
+
+    private boolean busy() {
+        return pipelineMetrics.inFlight() >= busyInFlight;
+    }
+}
@@ -0,0 +1,77 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.mongo;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Creates the compound indexes behind the listing endpoint of {@code QueryController}. Each one
+ * starts with an equality filter (or none) followed by the {@code (receivedAt, _id)} sort key, so a
+ * filtered page is a bounded index range scan instead of an in-memory sort. With the archive enabled,
+ * the archive collection gets the same listing indexes and the hot collection a
+ * {@code (status, processedAt)} index for {@link ShipmentArchiver}. Spring Data's automatic index
+ * creation stays off; this runs once at startup and is a no-op when the indexes exist.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentIndexInitializer {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.create-indexes:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.archive.collection:shipments_archive}")
+    private String archiveCollection;
+
+    @PostConstruct
+    public void createIndexes() {
+        if (!enabled) {
+            return;
+        }
+        String hotCollection = mongoTemplate.getCollectionName(ShipmentEntity.class);
+        List<Index> indexes = List.of(
+                listingIndex("receivedAt_id", null),
+                listingIndex("status_receivedAt_id", "status"),
+                listingIndex("city_receivedAt_id", "city"),
+                listingIndex("serviceLevel_receivedAt_id", "serviceLevel"));
+
+        ensure(hotCollection, indexes);
+        if (archiveEnabled) {
+            ensure(hotCollection, List.of(new Index().named("status_processedAt")
+                    .on("status", Sort.Direction.ASC)
+                    .on("processedAt", Sort.Direction.ASC)));
+            ensure(archiveCollection, indexes);
+        }
+    }
+
+    private void ensure(String collection, List<Index> indexes) {
+        Flux.fromIterable(indexes)
+                .concatMap(index -> mongoTemplate.indexOps(collection).ensureIndex(index))
+                .collectList()
+                .subscribe(
+                        names -> log.info("Ensured {} indexes: {}", collection, names),
+                        error -> log.warn("Failed to create {} indexes, queries may scan", collection, error));
+    }
+
+    private static Index listingIndex(String name, String equalityField) {
+        Index index = new Index().named(name);
+        if (equalityField != null) {
+            index.on(equalityField, Sort.Direction.ASC);
+        }
+        return index.on("receivedAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC);
+    }
+}
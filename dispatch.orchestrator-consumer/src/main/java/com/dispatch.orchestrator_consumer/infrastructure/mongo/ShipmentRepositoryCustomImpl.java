@@ -0,0 +1,289 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.mongo;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentQuery;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class ShipmentRepositoryCustomImpl implements ShipmentRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    // same order as the listing indexes; Mongo sorts a missing receivedAt first
+    private static final Comparator<ShipmentEntity> PAGE_ORDER = Comparator
+            .comparing(ShipmentEntity::getReceivedAt, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+            .thenComparing(ShipmentEntity::getId);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.archive.collection:shipments_archive}")
+    private String archiveCollection;
+
+    @Value("${app.archive.max-age:30d}")
+    private Duration archiveMaxAge;
+
+    @Value("${app.archive.completed-age:7d}")
+    private Duration archiveCompletedAge;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The archive is only probed when the shipment is old enough to have been archived: the
+     * archiver only moves shipments received at least {@code app.archive.completed-age} or
+     * {@code app.archive.max-age} ago, so a shipment requested more recently than both can only be
+     * in the hot collection, and takes the single upsert. The probe and the upsert are separate
+     * round trips, not atomic with the archiver's copy-then-delete: a redelivery racing the move of
+     * its own shipment can still be inserted again.
+     */
+    @Override
+    public Mono<Boolean> insertIfAbsent(ShipmentEntity entity) {
+        if (!archiveEnabled || !archivable(entity)) {
+            return upsertIfAbsent(entity);
+        }
+        // an archived shipment is a duplicate too; the archive is only read by _id, on its own index
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(entity.getId())), archiveCollection)
+                .flatMap(archived -> archived ? Mono.just(false) : upsertIfAbsent(entity));
+    }
+
+    private boolean archivable(ShipmentEntity entity) {
+        // without a request time the age is unknown, so the archive has to be checked
+        if (entity.getRequestedAt() == null) {
+            return true;
+        }
+        long youngestArchivable = System.currentTimeMillis()
+                - Math.min(archiveMaxAge.toMillis(), archiveCompletedAge.toMillis());
+        return entity.getRequestedAt() < youngestArchivable;
+    }
+
+    private Mono<Boolean> upsertIfAbsent(ShipmentEntity entity) {
+        // $setOnInsert only applies when the upsert creates the document, so an existing
+        // shipment is left untouched and reported as matched.
+        Update update = new Update();
+        toDocument(entity).forEach((field, value) -> {
+            if (!"_id".equals(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(entity.getId())), update, ShipmentEntity.class)
+                .map(result -> result.getUpsertedId() != null)
+                // two concurrent upserts can both miss; the loser fails on the _id index
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    @Override
+    public Flux<String> findExistingIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<String> hot = mongoTemplate.find(idsOnly(ids), ShipmentEntity.class).map(ShipmentEntity::getId);
+        if (!archiveEnabled) {
+            return hot;
+        }
+        return hot.collectList().flatMapMany(found -> {
+            Set<String> missing = missing(ids, found);
+            Flux<String> archived = missing.isEmpty()
+                    ? Flux.empty()
+                    : mongoTemplate.find(idsOnly(missing), ShipmentEntity.class, archiveCollection).map(ShipmentEntity::getId);
+            return Flux.fromIterable(found).concatWith(archived);
+        });
+    }
+
+    @Override
+    public Mono<ShipmentEntity> findSummaryById(String id) {
+        Mono<ShipmentEntity> hot = mongoTemplate.findOne(summary(Query.query(Criteria.where("_id").is(id))), ShipmentEntity.class);
+        if (!archiveEnabled) {
+            return hot;
+        }
+        return hot.switchIfEmpty(Mono.defer(() -> mongoTemplate.findOne(
+                summary(Query.query(Criteria.where("_id").is(id))), ShipmentEntity.class, archiveCollection)));
+    }
+
+    @Override
+    public Flux<ShipmentEntity> findSummariesByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<ShipmentEntity> hot = mongoTemplate.find(summary(Query.query(Criteria.where("_id").in(ids))), ShipmentEntity.class);
+        if (!archiveEnabled) {
+            return hot;
+        }
+        return hot.collectList().flatMapMany(found -> {
+            Set<String> missing = missing(ids, found.stream().map(ShipmentEntity::getId).toList());
+            Flux<ShipmentEntity> archived = missing.isEmpty()
+                    ? Flux.empty()
+                    : mongoTemplate.find(summary(Query.query(Criteria.where("_id").in(missing))), ShipmentEntity.class,
+                            archiveCollection);
+            return Flux.fromIterable(found).concatWith(archived);
+        });
+    }
+
+    @Override
+    public Flux<ShipmentEntity> findSummaries(ShipmentQuery shipmentQuery) {
+        Flux<ShipmentEntity> hot = mongoTemplate.find(pageQuery(shipmentQuery), ShipmentEntity.class);
+        if (!archiveEnabled) {
+            return hot;
+        }
+        // each tier yields its own first page in index order, so the merged page is the first `limit` of both
+        Flux<ShipmentEntity> archived = mongoTemplate.find(pageQuery(shipmentQuery), ShipmentEntity.class, archiveCollection);
+        return Flux.mergeComparing(PAGE_ORDER, hot, archived).take(shipmentQuery.getLimit());
+    }
+
+    private static Query pageQuery(ShipmentQuery shipmentQuery) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (shipmentQuery.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(shipmentQuery.getStatus()));
+        }
+        if (shipmentQuery.getCity() != null) {
+            criteria.add(Criteria.where("city").is(shipmentQuery.getCity()));
+        }
+        if (shipmentQuery.getServiceLevel() != null) {
+            criteria.add(Criteria.where("serviceLevel").is(shipmentQuery.getServiceLevel()));
+        }
+        if (shipmentQuery.getReceivedFrom() != null) {
+            criteria.add(Criteria.where("receivedAt").gte(shipmentQuery.getReceivedFrom()));
+        }
+        if (shipmentQuery.getReceivedTo() != null) {
+            criteria.add(Criteria.where("receivedAt").lt(shipmentQuery.getReceivedTo()));
+        }
+        if (shipmentQuery.getAfterReceivedAt() != null && shipmentQuery.getAfterId() != null) {
+            // keyset pagination: strictly after the last (receivedAt, _id) of the previous page
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("receivedAt").gt(shipmentQuery.getAfterReceivedAt()),
+                    new Criteria().andOperator(
+                            Criteria.where("receivedAt").is(shipmentQuery.getAfterReceivedAt()),
+                            Criteria.where("_id").gt(shipmentQuery.getAfterId()))));
+        }
+
+        Query query = criteria.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(criteria));
+        query.with(Sort.by(Sort.Order.asc("receivedAt"), Sort.Order.asc("_id")))
+                .limit(shipmentQuery.getLimit());
+        return summary(query);
+    }
+
+    @Override
+    public Mono<Void> deleteArchived(Collection<String> ids) {
+        if (!archiveEnabled || ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), archiveCollection).then();
+    }
+
+    @Override
+    public Mono<List<WriteResult>> bulkWrite(List<ShipmentWrite> writes) {
+        if (writes.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<WriteModel<Document>> models = new ArrayList<>(writes.size());
+        for (ShipmentWrite write : writes) {
+            models.add(toModel(write));
+        }
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ShipmentEntity.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(models, new BulkWriteOptions().ordered(false))))
+                .map(result -> toResults(writes, result, List.of()))
+                // unordered: the server applies every other write and reports the rejected ones
+                .onErrorResume(MongoBulkWriteException.class,
+                        e -> Mono.just(toResults(writes, e.getWriteResult(), e.getWriteErrors())))
+                .flatMap(results -> deleteArchived(replacedIds(writes, results)).thenReturn(results));
+    }
+
+    private static List<String> replacedIds(List<ShipmentWrite> writes, List<WriteResult> results) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            if (!writes.get(i).insertOnly() && results.get(i).error() == null) {
+                ids.add(writes.get(i).entity().getId());
+            }
+        }
+        return ids;
+    }
+
+    private WriteModel<Document> toModel(ShipmentWrite write) {
+        Document document = toDocument(write.entity());
+        Object id = document.get("_id");
+        if (write.insertOnly()) {
+            document.remove("_id");
+            return new UpdateOneModel<>(Filters.eq("_id", id), new Document("$setOnInsert", document),
+                    new UpdateOptions().upsert(true));
+        }
+        return new ReplaceOneModel<>(Filters.eq("_id", id), document, new ReplaceOptions().upsert(true));
+    }
+
+    private List<WriteResult> toResults(List<ShipmentWrite> writes, BulkWriteResult result, List<BulkWriteError> errors) {
+        boolean[] inserted = new boolean[writes.size()];
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            inserted[upsert.getIndex()] = true;
+        }
+        Throwable[] failures = new Throwable[writes.size()];
+        for (BulkWriteError error : errors) {
+            // an insert-only write that lost a race on the _id index is a duplicate, like insertIfAbsent
+            if (error.getCode() == DUPLICATE_KEY && writes.get(error.getIndex()).insertOnly()) {
+                continue;
+            }
+            failures[error.getIndex()] = new IllegalStateException("Bulk write failed for shipment "
+                    + writes.get(error.getIndex()).entity().getId() + ": " + error.getMessage());
+        }
+
+        List<WriteResult> results = new ArrayList<>(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            results.add(new WriteResult(inserted[i], failures[i]));
+        }
+        return results;
+    }
+
+    private static Query idsOnly(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        return query;
+    }
+
+    private static Set<String> missing(Collection<String> ids, Collection<String> found) {
+        Set<String> missing = new HashSet<>(ids);
+        found.forEach(missing::remove);
+        return missing;
+    }
+
+    private static Query summary(Query query) {
+        query.fields().exclude("rawPayload").exclude("audit");
+        return query;
+    }
+
+    private Document toDocument(ShipmentEntity entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+}
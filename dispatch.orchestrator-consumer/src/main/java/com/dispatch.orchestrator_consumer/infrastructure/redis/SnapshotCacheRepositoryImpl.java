@@ -1,28 +1,148 @@
 package com.logistics.dispatch_orchestrator_consumer.infrastructure.redis;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
 import com.logistics.dispatch_orchestrator_consumer.domain.repository.SnapshotCacheRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @Repository
 @Slf4j
 public class SnapshotCacheRepositoryImpl implements SnapshotCacheRepository {
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final SnapshotCodec snapshotCodec;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.redis.snapshot.ttl:14400}")
+    private long snapshotTtlSeconds;
+
+    @Value("${app.redis.snapshot.near-cache.enabled:false}")
+    private boolean nearCacheEnabled;
+
+    @Value("${app.redis.snapshot.near-cache.max-entries:10000}")
+    private long nearCacheMaxEntries;
+
+    @Value("${app.redis.snapshot.near-cache.ttl:30s}")
+    private Duration nearCacheTtl;
+
+    @Value("${app.redis.snapshot.near-cache.negative-ttl:5s}")
+    private Duration nearCacheNegativeTtl;
+
+    // Optional.empty() is a negative entry: Redis had no snapshot for the key
+    private Cache<String, Optional<ShipmentSnapshot>> nearCache;
 
-    public SnapshotCacheRepositoryImpl(@Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate) {
+    public SnapshotCacheRepositoryImpl(@Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                                       SnapshotCodec snapshotCodec,
+                                       MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.snapshotCodec = snapshotCodec;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!nearCacheEnabled) {
+            return;
+        }
+        // never keep a local copy longer than the producer keeps the snapshot in Redis
+        Duration positiveTtl = nearCacheTtl.compareTo(Duration.ofSeconds(snapshotTtlSeconds)) < 0
+                ? nearCacheTtl
+                : Duration.ofSeconds(snapshotTtlSeconds);
+        nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxEntries)
+                .expireAfter(new SnapshotExpiry(positiveTtl.toNanos(), nearCacheNegativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "snapshot.near-cache");
+        log.info("Snapshot near-cache enabled: maxEntries={}, ttl={}, negativeTtl={}",
+                nearCacheMaxEntries, positiveTtl, nearCacheNegativeTtl);
     }
 
     @Override
-    public Mono<String> getSnapshot(String shipmentId) {
+    public Mono<ShipmentSnapshot> getSnapshot(String shipmentId) {
         String key = "ship:event:" + shipmentId;
 
-        return redisTemplate.opsForValue()
-                .get(key)
+        if (nearCache == null) {
+            return fetch(key);
+        }
+
+        Optional<ShipmentSnapshot> cached = nearCache.getIfPresent(key);
+        if (cached != null) {
+            log.debug("Snapshot served from near-cache for key: {}", key);
+            return Mono.justOrEmpty(cached);
+        }
+
+        return fetch(key)
+                .doOnSuccess(result -> nearCache.put(key, Optional.ofNullable(result)));
+    }
+
+    @Override
+    public Mono<Map<String, ShipmentSnapshot>> getSnapshots(Collection<String> shipmentIds) {
+        Map<String, ShipmentSnapshot> found = new HashMap<>();
+        List<String> missing = new ArrayList<>(shipmentIds.size());
+        for (String shipmentId : shipmentIds) {
+            Optional<ShipmentSnapshot> cached = nearCache != null ? nearCache.getIfPresent("ship:event:" + shipmentId) : null;
+            if (cached == null) {
+                missing.add(shipmentId);
+            } else {
+                cached.ifPresent(snapshot -> found.put(shipmentId, snapshot));
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        List<ByteBuffer> keys = missing.stream()
+                .map(shipmentId -> ByteBuffer.wrap(("ship:event:" + shipmentId).getBytes(StandardCharsets.UTF_8)))
+                .toList();
+        return redisTemplate.execute(connection -> connection.stringCommands().mGet(keys))
+                .next()
+                .map(values -> {
+                    for (int i = 0; i < missing.size(); i++) {
+                        String key = "ship:event:" + missing.get(i);
+                        ByteBuffer buffer = i < values.size() ? values.get(i) : null;
+                        // a missing key comes back empty rather than null
+                        ShipmentSnapshot snapshot = buffer != null && buffer.hasRemaining() ? decodeOrNull(key, buffer) : null;
+                        if (snapshot != null) {
+                            found.put(missing.get(i), snapshot);
+                        }
+                        if (nearCache != null) {
+                            nearCache.put(key, Optional.ofNullable(snapshot));
+                        }
+                    }
+                    log.debug("Fetched {} snapshots from Redis, {} found", missing.size(), found.size());
+                    return found;
+                })
+                .doOnError(error -> log.error("Error retrieving {} snapshots from Redis", missing.size(), error));
+    }
+
+    private Mono<ShipmentSnapshot> fetch(String key) {
+        // read raw bytes: the snapshot may be Avro binary, which the UTF-8 value serializer would mangle
+        return redisTemplate.execute(connection -> connection.stringCommands()
+                        .get(ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8))))
+                .next()
+                .flatMap(buffer -> decode(key, buffer))
                 .doOnSuccess(result -> {
                     if (result != null) {
                         log.info("Snapshot found in Redis for key: {}", key);
@@ -32,4 +152,35 @@ public class SnapshotCacheRepositoryImpl implements SnapshotCacheRepository {
                 })
                 .doOnError(error -> log.error("Error retrieving snapshot from Redis for key: {}", key, error));
     }
-}
\ No newline at end of file
+
+    private Mono<ShipmentSnapshot> decode(String key, ByteBuffer buffer) {
+        return Mono.justOrEmpty(decodeOrNull(key, buffer));
+    }
+
+    private ShipmentSnapshot decodeOrNull(String key, ByteBuffer buffer) {
+        try {
+            return snapshotCodec.decode(buffer);
+        } catch (IOException e) {
+            log.warn("Failed to decode snapshot, using original event: key={}", key, e);
+            return null;
+        }
+    }
+
+    private record SnapshotExpiry(long positiveNanos, long negativeNanos) implements Expiry<String, Optional<ShipmentSnapshot>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<ShipmentSnapshot> value, long currentTime) {
+            return value.isPresent() ? positiveNanos : negativeNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<ShipmentSnapshot> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<ShipmentSnapshot> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
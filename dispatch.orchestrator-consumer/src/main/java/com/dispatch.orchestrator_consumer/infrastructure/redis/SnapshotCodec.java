@@ -0,0 +1,63 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes Redis snapshots written by the producer. A leading '{' is the legacy Jackson JSON
+ * encoding; a leading {@link #AVRO_V1} byte is followed by the Avro binary encoding of
+ * {@code ShipmentEvent.avsc}, which is read field by field in schema order straight into a
+ * {@link ShipmentSnapshot}.
+ */
+@Component
+public class SnapshotCodec {
+
+    public static final byte AVRO_V1 = 0x01;
+
+    private final ObjectReader jsonReader;
+
+    public SnapshotCodec(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(ShipmentSnapshot.class);
+    }
+
+    public ShipmentSnapshot decode(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return decode(bytes);
+    }
+
+    public ShipmentSnapshot decode(byte[] bytes) throws IOException {
+        if (bytes.length == 0) {
+            throw new IOException("Empty snapshot");
+        }
+        if (bytes[0] == AVRO_V1) {
+            return decodeAvroV1(bytes);
+        }
+        return jsonReader.readValue(bytes);
+    }
+
+    private ShipmentSnapshot decodeAvroV1(byte[] bytes) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, 1, bytes.length - 1, null);
+
+        decoder.skipString();                           // eventId
+        ShipmentSnapshot snapshot = new ShipmentSnapshot();
+        snapshot.setShipmentId(decoder.readString());
+        snapshot.setOrderId(decoder.readString());
+        snapshot.setCustomerId(decoder.readString());
+        snapshot.setAddress(decoder.readString());
+        snapshot.setCity(decoder.readString());
+        snapshot.setPostalCode(decoder.readString());
+        snapshot.setServiceLevel(decoder.readString());
+        decoder.readLong();                             // requestedAt
+        decoder.readInt();                              // attemptNumber
+        snapshot.setCorrelationId(decoder.readString());
+        return snapshot;
+    }
+}
@@ -0,0 +1,170 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.startup;
+
+import com.logistics.dispatch_orchestrator_consumer.config.KafkaTopicsProperties;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.AuditPayloadMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.mapper.EntityMapper;
+import com.logistics.dispatch_orchestrator_consumer.domain.model.ShipmentSnapshot;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.DecodedShipmentEvent;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.KafkaConsumerRunner;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.kafka.ShipmentEventDeserializer;
+import com.logistics.dispatch_orchestrator_consumer.infrastructure.metrics.StartupMetrics;
+import com.logistics.events.ShipmentEvent;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Gets the consumer ready before it takes traffic, then starts {@link KafkaConsumerRunner}:
+ * resolves the ShipmentEvent writer schema into the registry client the deserializers share, opens
+ * the Mongo, Redis and retry/DLT producer connections, and runs the decode and mapping paths
+ * {@code app.warmup.iterations} times so they are JIT-compiled. Spring Boot reports readiness only
+ * after application runners return, so {@code /actuator/health/readiness} stays down meanwhile.
+ * A failing step is logged and skipped; it never blocks startup.
+ */
+@Slf4j
+@Component
+public class ConsumerWarmup implements ApplicationRunner {
+
+    private final KafkaConsumerRunner consumerRunner;
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final KafkaTopicsProperties topics;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EntityMapper entityMapper;
+    private final AuditPayloadMapper auditPayloadMapper;
+    private final StartupMetrics startupMetrics;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:20000}")
+    private int iterations;
+
+    @Value("${app.warmup.timeout:10s}")
+    private Duration timeout;
+
+    public ConsumerWarmup(KafkaConsumerRunner consumerRunner,
+                          SchemaRegistryClient schemaRegistryClient,
+                          KafkaTopicsProperties topics,
+                          ReactiveMongoTemplate mongoTemplate,
+                          @Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                          KafkaTemplate<String, Object> kafkaTemplate,
+                          EntityMapper entityMapper,
+                          AuditPayloadMapper auditPayloadMapper,
+                          StartupMetrics startupMetrics) {
+        this.consumerRunner = consumerRunner;
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.topics = topics;
+        this.mongoTemplate = mongoTemplate;
+        this.redisTemplate = redisTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.entityMapper = entityMapper;
+        this.auditPayloadMapper = auditPayloadMapper;
+        this.startupMetrics = startupMetrics;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            long start = System.nanoTime();
+            step("schema", this::resolveSchema);
+            step("mongo", () -> mongoTemplate.executeCommand("{ ping: 1 }").block(timeout));
+            step("redis", () -> redisTemplate.execute(connection -> connection.ping()).next().block(timeout));
+            step("kafka", () -> kafkaTemplate.partitionsFor(topics.getDlt()));
+            step("jit", this::primeHotPaths);
+            Duration total = Duration.ofNanos(System.nanoTime() - start);
+            startupMetrics.recordWarmupStep("total", total);
+            log.info("Warm-up completed in {} ms", total.toMillis());
+        }
+        consumerRunner.startConsumer();
+    }
+
+    private void step(String name, WarmupStep step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            log.info("Warm-up step '{}' done", name);
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed, continuing", name, e);
+        }
+        startupMetrics.recordWarmupStep(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void resolveSchema() throws Exception {
+        // what producers currently write; fetching it by id caches it in the client the deserializers use
+        int latestId = schemaRegistryClient.getLatestSchemaMetadata(subject()).getId();
+        schemaRegistryClient.getSchemaById(latestId);
+        log.info("ShipmentEvent writer schema id {} cached", latestId);
+    }
+
+    private void primeHotPaths() throws Exception {
+        // the sample is encoded with ShipmentEvent.avsc, so it is only decodable under that schema's id
+        int readerId = schemaRegistryClient.getId(subject(), new AvroSchema(ShipmentEvent.getClassSchema()));
+        byte[] record = encode(readerId, sampleEvent());
+        ShipmentSnapshot snapshot = ShipmentSnapshot.builder().shipmentId("WARMUP").city("Lima").build();
+
+        try (ShipmentEventDeserializer deserializer = new ShipmentEventDeserializer(schemaRegistryClient)) {
+            for (int i = 0; i < iterations; i++) {
+                DecodedShipmentEvent decoded = (DecodedShipmentEvent) deserializer.deserialize(topics.getMain(), record);
+                entityMapper.toEntity(decoded.event(), "QUEUED");
+                entityMapper.toEntity(entityMapper.mergeWithSnapshot(decoded.event(), snapshot), "QUEUED_CACHE");
+                auditPayloadMapper.toAuditPayload(decoded.raw());
+            }
+        }
+    }
+
+    private String subject() {
+        return topics.getMain() + "-value";
+    }
+
+    private static ShipmentEvent sampleEvent() {
+        return ShipmentEvent.newBuilder()
+                .setEventId("warmup")
+                .setShipmentId("WARMUP")
+                .setOrderId("ORD-WARMUP")
+                .setCustomerId("CUST-WARMUP")
+                .setAddress("Av. Warmup 123")
+                .setCity("Lima")
+                .setPostalCode("15000")
+                .setServiceLevel("EXPRESS")
+                .setRequestedAt(Instant.now())
+                .setAttemptNumber(2)
+                .setCorrelationId("corr-warmup")
+                .setStatus("RETRY")
+                .build();
+    }
+
+    private static byte[] encode(int schemaId, ShipmentEvent event) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(0); // Confluent magic byte
+        out.write(ByteBuffer.allocate(4).putInt(schemaId).array());
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new SpecificDatumWriter<>(ShipmentEvent.class).write(event, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,149 @@
+package com.logistics.dispatch_orchestrator_consumer.infrastructure.mongo;
+
+import com.logistics.dispatch_orchestrator_consumer.domain.entity.ShipmentEntity;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.ShipmentWrite;
+import com.logistics.dispatch_orchestrator_consumer.domain.repository.ShipmentRepositoryCustom.WriteResult;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.MongoJsonSchema;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository against a real MongoDB, so upsert semantics ({@code $setOnInsert}, matched vs
+ * upserted, the duplicate-key race, per-index bulk errors) come from the server rather than stubs.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ShipmentRepositoryCustomImplTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private ShipmentRepositoryCustomImpl repository;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new ReactiveMongoTemplate(client, "shipments_test");
+        mongoTemplate.dropCollection(ShipmentEntity.class).block();
+        // archive disabled: plain construction leaves app.archive.enabled at false
+        repository = new ShipmentRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    void insertIfAbsentInsertsOnceAndLeavesTheExistingDocumentUntouched() {
+        StepVerifier.create(repository.insertIfAbsent(shipment("SHP-1", "QUEUED", "Lima")))
+                .expectNext(true)
+                .verifyComplete();
+
+        StepVerifier.create(repository.insertIfAbsent(shipment("SHP-1", "QUEUED_CACHE", "Cusco")))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier.create(mongoTemplate.findById("SHP-1", ShipmentEntity.class))
+                .assertNext(stored -> {
+                    assertThat(stored.getStatus()).isEqualTo("QUEUED");
+                    assertThat(stored.getCity()).isEqualTo("Lima");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void concurrentInsertIfAbsentInsertsExactlyOnce() {
+        int callers = 16;
+
+        // losers either match the new document or fail on the _id index; both must read as duplicates
+        StepVerifier.create(Flux.range(0, callers)
+                        .flatMap(i -> repository.insertIfAbsent(shipment("SHP-RACE", "QUEUED", "City-" + i))
+                                .subscribeOn(Schedulers.parallel()), callers)
+                        .collectList())
+                .assertNext(results -> {
+                    assertThat(results).hasSize(callers);
+                    assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(mongoTemplate.count(new Query(), ShipmentEntity.class))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void bulkWriteMapsEachResultToItsOwnWrite() {
+        // a validator rejecting documents without a status gives one write a server-side error
+        mongoTemplate.createCollection(ShipmentEntity.class, CollectionOptions.empty()
+                        .schema(MongoJsonSchema.builder().required("status").build()))
+                .block();
+        mongoTemplate.insert(shipment("SHP-KEPT", "QUEUED", "Lima")).block();
+        mongoTemplate.insert(shipment("SHP-REPLACED", "QUEUED", "Lima")).block();
+
+        List<ShipmentWrite> writes = List.of(
+                new ShipmentWrite(shipment("SHP-NEW", "QUEUED", "Lima"), true),
+                new ShipmentWrite(shipment("SHP-KEPT", "QUEUED_CACHE", "Cusco"), true),
+                new ShipmentWrite(shipment("SHP-REPLACED", "QUEUED_CACHE", "Cusco"), false),
+                new ShipmentWrite(shipment("SHP-INVALID", null, "Lima"), false),
+                new ShipmentWrite(shipment("SHP-CREATED", "QUEUED_CACHE", "Arequipa"), false));
+
+        StepVerifier.create(repository.bulkWrite(writes))
+                .assertNext(results -> {
+                    assertThat(results).extracting(WriteResult::inserted)
+                            .containsExactly(true, false, false, false, true);
+                    assertThat(results.get(3).error()).hasMessageContaining("SHP-INVALID");
+                    assertThat(List.of(results.get(0), results.get(1), results.get(2), results.get(4)))
+                            .extracting(WriteResult::error)
+                            .containsOnlyNulls();
+                })
+                .verifyComplete();
+
+        assertThat(status("SHP-NEW")).isEqualTo("QUEUED");
+        assertThat(status("SHP-KEPT")).isEqualTo("QUEUED");
+        assertThat(status("SHP-REPLACED")).isEqualTo("QUEUED_CACHE");
+        assertThat(status("SHP-CREATED")).isEqualTo("QUEUED_CACHE");
+        assertThat(mongoTemplate.findById("SHP-INVALID", ShipmentEntity.class).block()).isNull();
+    }
+
+    private String status(String id) {
+        ShipmentEntity stored = mongoTemplate.findById(id, ShipmentEntity.class).block(Duration.ofSeconds(5));
+        assertThat(stored).isNotNull();
+        return stored.getStatus();
+    }
+
+    private static ShipmentEntity shipment(String id, String status, String city) {
+        ShipmentEntity entity = new ShipmentEntity();
+        entity.setId(id);
+        entity.setShipmentId(id);
+        entity.setStatus(status);
+        entity.setCity(city);
+        entity.setReceivedAt(1_700_000_000_000L);
+        return entity;
+    }
+}
@@ -0,0 +1,99 @@
+package com.shipping.ops_producer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.events.ShipmentEvent;
+import com.logistics.shipping_ops_producer.infrastructure.redis.SnapshotCodec;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import com.shipping.ops_producer.publisher.ShipmentEventMapper;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request serialization work on the ingest path: building the Avro event, the Kafka value
+ * bytes, and the Redis snapshot in each supported format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SerializationBenchmark {
+
+    private static final String TOPIC = "logistics.shipments.v1";
+    private static final String EVENT_ID = "6f1c2d4e-8a9b-4c3d-9e8f-7a6b5c4d3e2f";
+
+    private ShipmentRequest request;
+    private ShipmentEvent event;
+    private KafkaAvroSerializer serializer;
+    private SnapshotCodec jsonCodec;
+    private SnapshotCodec avroCodec;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = new ShipmentRequest();
+        request.setShipmentId("SHP-9001");
+        request.setOrderId("ORD-12345");
+        request.setCustomerId("CUST-777");
+        request.setAddress("Av. José Larco 1232, Miraflores");
+        request.setCity("Lima");
+        request.setPostalCode("15074");
+        request.setServiceLevel("EXPRESS");
+        request.setRequestedAt(Instant.parse("2025-11-10T10:30:00Z"));
+        request.setAttemptNumber(1);
+        request.setCorrelationId("corr-XYZ-123");
+        event = ShipmentEventMapper.toAvro(EVENT_ID, request);
+
+        serializer = new KafkaAvroSerializer(new MockSchemaRegistryClient());
+        serializer.configure(Map.of("schema.registry.url", "mock://benchmark", "auto.register.schemas", true), false);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        jsonCodec = new SnapshotCodec(objectMapper, SnapshotCodec.Format.JSON);
+        avroCodec = new SnapshotCodec(objectMapper, SnapshotCodec.Format.AVRO);
+
+        System.out.printf("%nSnapshot payload size: json=%d bytes, avro=%d bytes%n",
+                jsonCodec.encode(EVENT_ID, request).length, avroCodec.encode(EVENT_ID, request).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+    }
+
+    @Benchmark
+    public ShipmentEvent toAvro() {
+        return ShipmentEventMapper.toAvro(EVENT_ID, request);
+    }
+
+    @Benchmark
+    public byte[] kafkaValue() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] jsonSnapshot() throws Exception {
+        return jsonCodec.encode(EVENT_ID, request);
+    }
+
+    @Benchmark
+    public byte[] avroSnapshot() throws Exception {
+        return avroCodec.encode(EVENT_ID, request);
+    }
+}
@@ -1,17 +1,30 @@
 package com.shipping.ops_producer.api;
 
-import com.logistics.shipping_ops_producer.publisher.KafkaEventPublisher;
-import com.logistics.shipping_ops_producer.infrastructure.redis.RedisSnapshotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.shipping.ops_producer.api.dto.BatchShipmentResult;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import com.shipping.ops_producer.api.dto.ShipmentResponse;
+import com.shipping.ops_producer.service.ShipmentIngestService;
+import com.shipping.ops_producer.service.ShipmentIngestService.BatchItem;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.Valid;
-import java.util.UUID;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/shipments")
@@ -20,37 +33,65 @@ import java.util.UUID;
 @Slf4j
 public class ShipmentController {
 
-    private final KafkaEventPublisher kafkaEventPublisher;
-    private final RedisSnapshotRepository redisSnapshotRepository;
+    private final ShipmentIngestService ingestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public Mono<ResponseEntity<com.shipping.ops_producer.api.dto.ShipmentResponse>> createShipment(@Valid @RequestBody com.shipping.ops_producer.api.dto.ShipmentRequest request) {
+    public Mono<ResponseEntity<ShipmentResponse>> createShipment(@Valid @RequestBody ShipmentRequest request) {
         log.info("Received shipment request for shipmentId: {}, attemptNumber: {}",
                  request.getShipmentId(), request.getAttemptNumber());
 
-        String eventId = UUID.randomUUID().toString();
-
-        return kafkaEventPublisher.publishShipmentEvent(eventId, request)
-                .flatMap(success -> {z
-                    if (success) {
-                        return redisSnapshotRepository.saveSnapshot(request.getShipmentId(), request)
-                                .map(saved -> ResponseEntity.status(HttpStatus.ACCEPTED)
-                                        .body(new com.shipping.ops_producer.api.dto.ShipmentResponse(eventId, "Shipment event published successfully")))
-                                .onErrorReturn(ResponseEntity.status(HttpStatus.ACCEPTED)
-                                        .body(new com.shipping.ops_producer.api.dto.ShipmentResponse(eventId, "Event published but snapshot save failed")));
-                    } else {
-                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                .body(new com.shipping.ops_producer.api.dto.ShipmentResponse(eventId, "Failed to publish shipment event")));
-                    }
-                })
-                .doOnSuccess(response -> log.info("Shipment processing completed for eventId: {}", eventId))
-                .doOnError(error -> log.error("Error processing shipment request: ", error))
-                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(new com.shipping.ops_producer.api.dto.ShipmentResponse(eventId, "Internal server error")));
+        return ingestService.ingest(request);
+    }
+
+    @PostMapping(value = "/batch",
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchShipmentResult> createShipmentBatch(@RequestBody List<ShipmentRequest> requests) {
+        log.info("Received shipment batch with {} items", requests.size());
+
+        return ingestService.ingestBatch(Flux.fromIterable(requests));
+    }
+
+    @PostMapping(value = "/batch",
+                 consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchShipmentResult> createShipmentStream(HttpServletRequest httpRequest) {
+        log.info("Received NDJSON shipment stream");
+
+        // one line at a time, so a malformed line fails only its own item instead of the whole stream
+        ObjectReader shipmentReader = objectMapper.readerFor(ShipmentRequest.class);
+        Flux<BatchItem> items = Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        this::closeQuietly)
+                .filter(line -> !line.isBlank())
+                .map(line -> parseLine(shipmentReader, line))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(error -> log.error("Error reading NDJSON shipment stream: ", error));
+
+        return ingestService.ingestItems(items);
     }
 
     @GetMapping("/health")
     public Mono<ResponseEntity<String>> health() {
         return Mono.just(ResponseEntity.ok("OK"));
     }
-}
\ No newline at end of file
+
+    private BatchItem parseLine(ObjectReader shipmentReader, String line) {
+        try {
+            return BatchItem.of(shipmentReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed NDJSON shipment line: {}", e.getOriginalMessage());
+            return BatchItem.unparseable("malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void closeQuietly(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Failed to close NDJSON shipment stream", e);
+        }
+    }
+}
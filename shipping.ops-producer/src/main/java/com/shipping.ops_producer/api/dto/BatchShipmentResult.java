@@ -0,0 +1,14 @@
+package com.shipping.ops_producer.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchShipmentResult {
+    private long index;
+    private String shipmentId;
+    private int status;
+    private String eventId;
+    private String message;
+}
@@ -22,17 +22,30 @@ public class KafkaProducerConfig {
     @Value("${kafka.schema-registry-url}")
     private String schemaRegistryUrl;
 
+    @Value("${kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    /**
+     * Single value serializer instance, so the schema id resolved by the startup warm-up is the one
+     * the producer uses instead of being looked up on the first send.
+     */
+    @Bean
+    public KafkaAvroSerializer shipmentEventSerializer() {
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer();
+        serializer.configure(Map.of("schema.registry.url", schemaRegistryUrl), false);
+        return serializer;
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
-        configProps.put("schema.registry.url", schemaRegistryUrl);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), shipmentEventSerializer());
     }
 
     @Bean
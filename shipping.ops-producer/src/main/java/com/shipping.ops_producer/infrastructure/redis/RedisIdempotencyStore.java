@@ -0,0 +1,62 @@
+package com.logistics.shipping_ops_producer.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shipping.ops_producer.api.dto.ShipmentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared tier of the producer's idempotency cache: accepted responses stored in Redis for the
+ * idempotency window, so a retry that lands on another replica still gets the original eventId.
+ * Redis errors are treated as misses; the local tier and the consumer's dedupe still apply.
+ */
+@Repository
+@Slf4j
+public class RedisIdempotencyStore {
+
+    private static final String KEY_PREFIX = "ship:idem:";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ingest.idempotency.window:10m}")
+    private Duration window;
+
+    public RedisIdempotencyStore(@Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                                 ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<ShipmentResponse> find(String key) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + key)
+                .flatMap(this::decode)
+                .doOnError(error -> log.warn("Idempotency lookup failed, publishing anyway: key={}", key, error))
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    /**
+     * Stores the response unless another replica stored one first; emits the response that won.
+     */
+    public Mono<ShipmentResponse> save(String key, ShipmentResponse response) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(response))
+                .flatMap(json -> redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, json, window))
+                .flatMap(stored -> stored ? Mono.just(response) : find(key).defaultIfEmpty(response))
+                .doOnError(error -> log.warn("Failed to store idempotency entry: key={}", key, error))
+                .onErrorReturn(response);
+    }
+
+    private Mono<ShipmentResponse> decode(String json) {
+        return Mono.fromCallable(() -> {
+            JsonNode node = objectMapper.readTree(json);
+            return new ShipmentResponse(node.path("eventId").asText(), node.path("message").asText());
+        });
+    }
+}
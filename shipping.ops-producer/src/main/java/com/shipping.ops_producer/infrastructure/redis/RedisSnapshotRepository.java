@@ -1,44 +1,223 @@
 package com.logistics.shipping_ops_producer.infrastructure.redis;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.logistics.shipping_ops_producer.api.ShipmentRequest;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveStringCommands.SetCommand;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @Repository
 @Slf4j
 public class RedisSnapshotRepository {
 
+    /**
+     * FLUSH completes {@link #saveSnapshot} once the batch holding the snapshot has been written,
+     * IMMEDIATE completes as soon as the snapshot is queued for the next flush.
+     */
+    public enum Durability { FLUSH, IMMEDIATE }
+
+    /**
+     * Concurrent producers only contend for the sink briefly; past this, the snapshot is written directly.
+     */
+    private static final Sinks.EmitFailureHandler EMIT_CONTENTION =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(10));
+
+    private record PendingSnapshot(String key, byte[] encoded, Sinks.One<Boolean> result) {
+    }
+
     private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final SnapshotCodec snapshotCodec;
+    private final MeterRegistry meterRegistry;
 
     @Value("${redis.snapshot.ttl:14400}")
     private long ttlSeconds;
 
+    @Value("${redis.snapshot.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${redis.snapshot.write-behind.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${redis.snapshot.write-behind.max-delay:5ms}")
+    private Duration maxDelay;
+
+    @Value("${redis.snapshot.write-behind.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${redis.snapshot.write-behind.durability:FLUSH}")
+    private Durability durability;
+
+    @Value("${redis.snapshot.write-behind.flush-timeout:2s}")
+    private Duration flushTimeout;
+
+    private volatile Sinks.Many<PendingSnapshot> pending;
+    private volatile boolean stopping;
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private DistributionSummary batchSize;
+    private Timer flushLatency;
+    private Counter overflow;
+
     public RedisSnapshotRepository(@Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
-                                   ObjectMapper objectMapper) {
+                                   SnapshotCodec snapshotCodec,
+                                   MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.snapshotCodec = snapshotCodec;
+        this.meterRegistry = meterRegistry;
     }
 
-    public Mono<Boolean> saveSnapshot(String shipmentId, ShipmentRequest request) {
+    @PostConstruct
+    public void startWriteBehind() {
+        if (!writeBehindEnabled) {
+            drained.countDown();
+            return;
+        }
+
+        batchSize = DistributionSummary.builder("redis.snapshot.batch.size")
+                .description("Snapshots written per pipelined flush")
+                .register(meterRegistry);
+        flushLatency = Timer.builder("redis.snapshot.flush.latency")
+                .description("Time to write a pipelined snapshot batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        overflow = Counter.builder("redis.snapshot.write-behind.overflow")
+                .description("Snapshots written directly because the write-behind queue was full")
+                .register(meterRegistry);
+
+        startPipeline();
+
+        log.info("Redis snapshot write-behind enabled: maxBatchSize={}, maxDelay={}, durability={}",
+                maxBatchSize, maxDelay, durability);
+    }
+
+    /**
+     * Fair buffering: a batch is only cut when the previous flush has finished, so a stalled Redis
+     * backs snapshots up in the queue (and then onto direct writes) instead of overflowing the
+     * buffer operator. Should the pipeline still fail, snapshots it held are answered {@code false}
+     * and a new pipeline takes over.
+     */
+    private void startPipeline() {
+        Sinks.Many<PendingSnapshot> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<PendingSnapshot>get(queueCapacity).get());
+        pending = sink;
+        sink.asFlux()
+                .bufferTimeout(maxBatchSize, maxDelay, true)
+                .concatMap(this::flush)
+                .doOnDiscard(Object.class, this::failDiscarded)
+                .subscribe(null, this::restartPipeline, drained::countDown);
+    }
+
+    private void failDiscarded(Object discarded) {
+        // queued snapshots are discarded one by one, buffered batches as lists
+        if (discarded instanceof PendingSnapshot snapshot) {
+            snapshot.result().tryEmitValue(false);
+        } else if (discarded instanceof List<?> batch) {
+            batch.forEach(this::failDiscarded);
+        }
+    }
+
+    private void restartPipeline(Throwable error) {
+        if (stopping) {
+            drained.countDown();
+            return;
+        }
+        log.error("Redis snapshot write-behind pipeline failed, restarting it", error);
+        startPipeline();
+    }
+
+    @PreDestroy
+    public void stopWriteBehind() throws InterruptedException {
+        stopping = true;
+        if (pending != null) {
+            pending.emitComplete(Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+        if (!drained.await(5, TimeUnit.SECONDS)) {
+            log.warn("Timed out flushing pending Redis snapshots on shutdown");
+        }
+    }
+
+    public Mono<Boolean> saveSnapshot(String shipmentId, String eventId, ShipmentRequest request) {
         String key = "ship:event:" + shipmentId;
 
-        return Mono.fromCallable(() -> objectMapper.writeValueAsString(request))
-                .flatMap(json -> {
-                    log.info("Saving snapshot to Redis: key={}, ttl={}s", key, ttlSeconds);
-                    return redisTemplate.opsForValue()
-                            .set(key, json, Duration.ofSeconds(ttlSeconds))
-                            .doOnSuccess(result -> log.info("Snapshot saved successfully: key={}", key))
-                            .doOnError(error -> log.error("Failed to save snapshot: key={}", key, error))
-                            .onErrorReturn(false);
-                })
+        return Mono.fromCallable(() -> snapshotCodec.encode(eventId, request))
+                .flatMap(snapshot -> writeBehindEnabled ? enqueue(key, snapshot) : write(key, snapshot))
+                .onErrorReturn(false);
+    }
+
+    private Mono<Boolean> write(String key, byte[] snapshot) {
+        log.info("Saving snapshot to Redis: key={}, ttl={}s", key, ttlSeconds);
+        return redisTemplate.execute(connection -> connection.stringCommands()
+                        .set(ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8)), ByteBuffer.wrap(snapshot),
+                                Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert()))
+                .next()
+                .doOnSuccess(result -> log.info("Snapshot saved successfully: key={}", key))
+                .doOnError(error -> log.error("Failed to save snapshot: key={}", key, error))
                 .onErrorReturn(false);
     }
-}
\ No newline at end of file
+
+    private Mono<Boolean> enqueue(String key, byte[] encoded) {
+        PendingSnapshot snapshot = new PendingSnapshot(key, encoded, Sinks.one());
+        try {
+            pending.emitNext(snapshot, EMIT_CONTENTION);
+        } catch (Sinks.EmissionException e) {
+            overflow.increment();
+            log.warn("Write-behind queue rejected snapshot ({}), writing directly: key={}", e.getReason(), key);
+            return write(key, encoded);
+        }
+
+        if (durability == Durability.IMMEDIATE) {
+            return Mono.just(true);
+        }
+        return snapshot.result().asMono()
+                .timeout(flushTimeout, Mono.fromSupplier(() -> {
+                    log.warn("Snapshot not flushed within {}: key={}", flushTimeout, key);
+                    return false;
+                }));
+    }
+
+    private Mono<Void> flush(List<PendingSnapshot> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Expiration expiration = Expiration.seconds(ttlSeconds);
+
+        Flux<SetCommand> commands = Flux.fromIterable(batch)
+                .map(snapshot -> SetCommand.set(ByteBuffer.wrap(snapshot.key().getBytes(StandardCharsets.UTF_8)))
+                        .value(ByteBuffer.wrap(snapshot.encoded()))
+                        .expiring(expiration));
+
+        return redisTemplate.execute(connection -> connection.stringCommands().set(commands))
+                .index()
+                .doOnNext(response -> batch.get(response.getT1().intValue()).result()
+                        .tryEmitValue(Boolean.TRUE.equals(response.getT2().getOutput())))
+                .then()
+                .doOnSuccess(done -> {
+                    sample.stop(flushLatency);
+                    batchSize.record(batch.size());
+                    log.debug("Flushed {} snapshots to Redis", batch.size());
+                })
+                .onErrorResume(error -> {
+                    log.error("Failed to flush {} snapshots to Redis", batch.size(), error);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> batch.forEach(snapshot -> snapshot.result().tryEmitValue(false)));
+    }
+}
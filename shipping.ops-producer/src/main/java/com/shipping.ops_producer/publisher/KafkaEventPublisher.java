@@ -1,7 +1,14 @@
 package com.shipping.ops_producer.publisher;
 
 import com.logistics.events.ShipmentEvent;
-import com.logistics.shipping_ops_producer.api.ShipmentRequest;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,45 +16,61 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.Semaphore;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaEventPublisher {
 
-    private final com.shipping.ops_producer.publisher.KafkaTemplate<String, Object> kafkaTemplate;
+    private static final String RESILIENCE_INSTANCE = "kafkaPublisher";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
 
     @Value("${kafka.topic.shipments}")
     private String shipmentsTopic;
 
+    @Value("${kafka.publisher.max-in-flight:1000}")
+    private int maxInFlight;
+
+    private CircuitBreaker circuitBreaker;
+    private Retry retry;
+    private Semaphore inFlightPermits;
+
+    @PostConstruct
+    public void init() {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.retry = retryRegistry.retry(RESILIENCE_INSTANCE);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+    }
+
     public Mono<Boolean> publishShipmentEvent(String eventId, ShipmentRequest request) {
-        return Mono.fromCallable(() -> {
-            try {
-                ShipmentEvent event = ShipmentEvent.newBuilder()
-                        .setEventId(eventId)
-                        .setShipmentId(request.getShipmentId())
-                        .setOrderId(request.getOrderId())
-                        .setCustomerId(request.getCustomerId())
-                        .setAddress(request.getAddress())
-                        .setCity(request.getCity())
-                        .setPostalCode(request.getPostalCode())
-                        .setServiceLevel(request.getServiceLevel())
-                        .setRequestedAt(request.getRequestedAt())
-                        .setAttemptNumber(request.getAttemptNumber())
-                        .setCorrelationId(request.getCorrelationId())
-                        .setStatus(request.getStatus())
-                        .build();
-
-                log.info("Publishing event to topic: {} with key: {}", shipmentsTopic, request.getShipmentId());
-
-                kafkaTemplate.send(shipmentsTopic, request.getShipmentId(), event).get();
-
-                log.info("Successfully published event with eventId: {} for shipmentId: {}",
-                        eventId, request.getShipmentId());
-                return true;
-            } catch (Exception e) {
-                log.error("Failed to publish event for shipmentId: {}", request.getShipmentId(), e);
-                return false;
+        return Mono.defer(() -> {
+            if (!inFlightPermits.tryAcquire()) {
+                log.warn("Max in-flight sends ({}) reached, rejecting shipmentId: {}",
+                        maxInFlight, request.getShipmentId());
+                return Mono.just(false);
             }
+
+            ShipmentEvent event = ShipmentEventMapper.toAvro(eventId, request);
+            log.info("Publishing event to topic: {} with key: {}", shipmentsTopic, request.getShipmentId());
+
+            return Mono.fromFuture(() -> kafkaTemplate.send(shipmentsTopic, request.getShipmentId(), event))
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(RetryOperator.of(retry))
+                    .map(result -> {
+                        log.info("Successfully published event with eventId: {} for shipmentId: {}, partition: {}, offset: {}",
+                                eventId, request.getShipmentId(),
+                                result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                        return true;
+                    })
+                    .onErrorResume(error -> {
+                        log.error("Failed to publish event for shipmentId: {}", request.getShipmentId(), error);
+                        return Mono.just(false);
+                    })
+                    .doFinally(signal -> inFlightPermits.release());
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.shipping.ops_producer.publisher;
+
+import com.logistics.events.ShipmentEvent;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+
+public final class ShipmentEventMapper {
+
+    private ShipmentEventMapper() {
+    }
+
+    public static ShipmentEvent toAvro(String eventId, ShipmentRequest request) {
+        return ShipmentEvent.newBuilder()
+                .setEventId(eventId)
+                .setShipmentId(request.getShipmentId())
+                .setOrderId(request.getOrderId())
+                .setCustomerId(request.getCustomerId())
+                .setAddress(request.getAddress())
+                .setCity(request.getCity())
+                .setPostalCode(request.getPostalCode())
+                .setServiceLevel(request.getServiceLevel())
+                .setRequestedAt(request.getRequestedAt())
+                .setAttemptNumber(request.getAttemptNumber())
+                .setCorrelationId(request.getCorrelationId())
+                .setStatus(request.getStatus())
+                .build();
+    }
+}
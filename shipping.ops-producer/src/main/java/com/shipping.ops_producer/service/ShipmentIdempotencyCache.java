@@ -0,0 +1,115 @@
+package com.shipping.ops_producer.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.shipping_ops_producer.infrastructure.redis.RedisIdempotencyStore;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import com.shipping.ops_producer.api.dto.ShipmentResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Makes ingestion idempotent per {@code shipmentId/attemptNumber/correlationId}. Identical requests
+ * in flight at the same time share one publish, and repeats within {@code ingest.idempotency.window}
+ * get the accepted response (same eventId) without publishing again. The local tier is bounded by
+ * {@code ingest.idempotency.max-entries}; with {@code ingest.idempotency.redis.enabled} accepted
+ * responses are also shared with the other producer replicas through Redis. Responses that were not
+ * accepted are never cached, so a client retry after a failure publishes again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentIdempotencyCache {
+
+    private final RedisIdempotencyStore redisStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingest.idempotency.window:10m}")
+    private Duration window;
+
+    @Value("${ingest.idempotency.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${ingest.idempotency.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    private AsyncCache<String, ResponseEntity<ShipmentResponse>> responses;
+    private Counter redisHits;
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(window)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses.synchronous(), "shipment.idempotency");
+        redisHits = Counter.builder("shipment.idempotency.redis.hits")
+                .description("Repeated requests answered from another replica's response in Redis")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<ShipmentResponse>> execute(ShipmentRequest request,
+                                                          Supplier<Mono<ResponseEntity<ShipmentResponse>>> publish) {
+        if (!enabled) {
+            return publish.get();
+        }
+        String key = request.getShipmentId() + "|" + request.getAttemptNumber() + "|" + request.getCorrelationId();
+        // suppressCancel: a client giving up must not cancel the publish other callers are waiting on
+        return Mono.fromFuture(() -> responses.get(key, (k, executor) -> load(k, publish).toFuture()), true)
+                .onErrorResume(NotAccepted.class, e -> Mono.just(e.response));
+    }
+
+    private Mono<ResponseEntity<ShipmentResponse>> load(String key, Supplier<Mono<ResponseEntity<ShipmentResponse>>> publish) {
+        Mono<ResponseEntity<ShipmentResponse>> published = Mono.defer(publish)
+                .flatMap(response -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        // Caffeine drops a failed future, so the response reaches waiting callers without
+                        // being cached; the cache itself must not be touched while this loader may still
+                        // be running inside its compute for the same key
+                        return Mono.error(new NotAccepted(response));
+                    }
+                    if (!redisEnabled) {
+                        return Mono.just(response);
+                    }
+                    // a replica that published concurrently may have stored first; answer with its eventId
+                    return redisStore.save(key, response.getBody())
+                            .map(stored -> ResponseEntity.status(response.getStatusCode()).body(stored));
+                });
+        if (!redisEnabled) {
+            return published;
+        }
+        return redisStore.find(key)
+                .doOnNext(cached -> {
+                    redisHits.increment();
+                    log.info("Repeated shipment request answered from Redis: key={}, eventId={}", key, cached.getEventId());
+                })
+                .map(cached -> ResponseEntity.status(HttpStatus.ACCEPTED).body(cached))
+                .switchIfEmpty(published);
+    }
+
+    private static final class NotAccepted extends RuntimeException {
+
+        private final transient ResponseEntity<ShipmentResponse> response;
+
+        private NotAccepted(ResponseEntity<ShipmentResponse> response) {
+            super("Shipment request not accepted: " + response.getStatusCode(), null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.shipping.ops_producer.service;
+
+import com.logistics.shipping_ops_producer.infrastructure.redis.RedisSnapshotRepository;
+import com.shipping.ops_producer.api.dto.BatchShipmentResult;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import com.shipping.ops_producer.api.dto.ShipmentResponse;
+import com.shipping.ops_producer.publisher.KafkaEventPublisher;
+import com.shipping.ops_producer.startup.StartupMetrics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShipmentIngestService {
+
+    private final KafkaEventPublisher kafkaEventPublisher;
+    private final RedisSnapshotRepository redisSnapshotRepository;
+    private final Validator validator;
+    private final ShipmentIdempotencyCache idempotencyCache;
+    private final StartupMetrics startupMetrics;
+
+    @Value("${ingest.batch.concurrency:256}")
+    private int batchConcurrency;
+
+    /**
+     * Publishes the request unless an identical one (same shipmentId, attemptNumber and correlationId)
+     * is in flight or was accepted within the idempotency window, in which case its response is reused.
+     */
+    public Mono<ResponseEntity<ShipmentResponse>> ingest(ShipmentRequest request) {
+        return startupMetrics.timeFirstRequest(idempotencyCache.execute(request, () -> publish(request)));
+    }
+
+    private Mono<ResponseEntity<ShipmentResponse>> publish(ShipmentRequest request) {
+        String eventId = UUID.randomUUID().toString();
+
+        // defer: a publisher that rejects synchronously (circuit open) still ends in the 500 below
+        return Mono.defer(() -> kafkaEventPublisher.publishShipmentEvent(eventId, request))
+                .flatMap(success -> {
+                    if (success) {
+                        return redisSnapshotRepository.saveSnapshot(request.getShipmentId(), eventId, request)
+                                .map(saved -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                                        .body(new ShipmentResponse(eventId, "Shipment event published successfully")))
+                                .onErrorReturn(ResponseEntity.status(HttpStatus.ACCEPTED)
+                                        .body(new ShipmentResponse(eventId, "Event published but snapshot save failed")));
+                    } else {
+                        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(new ShipmentResponse(eventId, "Failed to publish shipment event")));
+                    }
+                })
+                .doOnSuccess(response -> log.info("Shipment processing completed for eventId: {}", eventId))
+                .doOnError(error -> log.error("Error processing shipment request: ", error))
+                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ShipmentResponse(eventId, "Internal server error")));
+    }
+
+    /**
+     * Validates and publishes every item of the batch, keeping up to {@code ingest.batch.concurrency}
+     * Kafka sends and Redis writes in flight. Results are emitted as each item completes, so they
+     * may arrive out of input order; {@link BatchShipmentResult#getIndex()} ties them back.
+     */
+    public Flux<BatchShipmentResult> ingestBatch(Flux<ShipmentRequest> requests) {
+        return ingestItems(requests.map(BatchItem::of));
+    }
+
+    /**
+     * Like {@link #ingestBatch}, for items that may have failed to parse; those are answered with a
+     * 400 result at their position instead of ending the batch.
+     */
+    public Flux<BatchShipmentResult> ingestItems(Flux<BatchItem> items) {
+        return items.index()
+                .flatMap(item -> ingestItem(item.getT1(), item.getT2()), batchConcurrency);
+    }
+
+    /**
+     * One batch item: the parsed request, or the reason it could not be parsed.
+     */
+    public record BatchItem(ShipmentRequest request, String parseError) {
+
+        public static BatchItem of(ShipmentRequest request) {
+            return new BatchItem(request, null);
+        }
+
+        public static BatchItem unparseable(String parseError) {
+            return new BatchItem(null, parseError);
+        }
+    }
+
+    private Mono<BatchShipmentResult> ingestItem(long index, BatchItem item) {
+        if (item.parseError() != null) {
+            return Mono.just(new BatchShipmentResult(index, null, HttpStatus.BAD_REQUEST.value(),
+                    null, item.parseError()));
+        }
+        ShipmentRequest request = item.request();
+        if (request == null) {
+            return Mono.just(new BatchShipmentResult(index, null, HttpStatus.BAD_REQUEST.value(),
+                    null, "shipment is required"));
+        }
+
+        Set<ConstraintViolation<ShipmentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return Mono.just(new BatchShipmentResult(index, request.getShipmentId(), HttpStatus.BAD_REQUEST.value(),
+                    null, message));
+        }
+
+        return ingest(request)
+                .map(response -> new BatchShipmentResult(index, request.getShipmentId(),
+                        response.getStatusCode().value(),
+                        response.getBody().getEventId(),
+                        response.getBody().getMessage()));
+    }
+}
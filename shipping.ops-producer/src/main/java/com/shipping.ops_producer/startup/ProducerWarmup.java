@@ -0,0 +1,123 @@
+package com.shipping.ops_producer.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logistics.events.ShipmentEvent;
+import com.logistics.shipping_ops_producer.infrastructure.redis.SnapshotCodec;
+import com.shipping.ops_producer.api.dto.ShipmentRequest;
+import com.shipping.ops_producer.publisher.ShipmentEventMapper;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Gets the producer ready before it takes traffic: registers (or looks up) the ShipmentEvent schema
+ * through the serializer the producer uses, so its id is cached; opens the Kafka producer and the
+ * Redis connection; and runs the request parsing, Avro mapping, serialization and snapshot encoding
+ * paths {@code warmup.iterations} times so they are JIT-compiled. Spring Boot reports readiness only
+ * after application runners return. A failing step is logged and skipped; it never blocks startup.
+ */
+@Slf4j
+@Component
+public class ProducerWarmup implements ApplicationRunner {
+
+    private final KafkaAvroSerializer shipmentEventSerializer;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final SnapshotCodec snapshotCodec;
+    private final ObjectMapper objectMapper;
+    private final StartupMetrics startupMetrics;
+
+    @Value("${kafka.topic.shipments}")
+    private String shipmentsTopic;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.iterations:20000}")
+    private int iterations;
+
+    @Value("${warmup.timeout:10s}")
+    private Duration timeout;
+
+    public ProducerWarmup(KafkaAvroSerializer shipmentEventSerializer,
+                          KafkaTemplate<String, Object> kafkaTemplate,
+                          @Qualifier("reactiveStringRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+                          SnapshotCodec snapshotCodec,
+                          ObjectMapper objectMapper,
+                          StartupMetrics startupMetrics) {
+        this.shipmentEventSerializer = shipmentEventSerializer;
+        this.kafkaTemplate = kafkaTemplate;
+        this.redisTemplate = redisTemplate;
+        this.snapshotCodec = snapshotCodec;
+        this.objectMapper = objectMapper;
+        this.startupMetrics = startupMetrics;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        step("schema", () -> shipmentEventSerializer.serialize(shipmentsTopic, ShipmentEventMapper.toAvro("warmup", sampleRequest())));
+        step("kafka", () -> kafkaTemplate.partitionsFor(shipmentsTopic));
+        step("redis", () -> redisTemplate.execute(connection -> connection.ping()).next().block(timeout));
+        step("jit", this::primeHotPaths);
+        Duration total = Duration.ofNanos(System.nanoTime() - start);
+        startupMetrics.recordWarmupStep("total", total);
+        log.info("Warm-up completed in {} ms", total.toMillis());
+    }
+
+    private void step(String name, WarmupStep step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            log.info("Warm-up step '{}' done", name);
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed, continuing", name, e);
+        }
+        startupMetrics.recordWarmupStep(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void primeHotPaths() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(sampleRequest());
+        ObjectReader reader = objectMapper.readerFor(ShipmentRequest.class);
+        for (int i = 0; i < iterations; i++) {
+            ShipmentRequest request = reader.readValue(body);
+            ShipmentEvent event = ShipmentEventMapper.toAvro("warmup", request);
+            // the schema id is cached by now, so this stays local
+            shipmentEventSerializer.serialize(shipmentsTopic, event);
+            snapshotCodec.encode("warmup", request);
+        }
+    }
+
+    private static ShipmentRequest sampleRequest() {
+        ShipmentRequest request = new ShipmentRequest();
+        request.setShipmentId("WARMUP");
+        request.setOrderId("ORD-WARMUP");
+        request.setCustomerId("CUST-WARMUP");
+        request.setAddress("Av. Warmup 123");
+        request.setCity("Lima");
+        request.setPostalCode("15000");
+        request.setServiceLevel("EXPRESS");
+        request.setRequestedAt(Instant.parse("2025-11-10T10:30:00Z"));
+        request.setAttemptNumber(1);
+        request.setCorrelationId("corr-warmup");
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
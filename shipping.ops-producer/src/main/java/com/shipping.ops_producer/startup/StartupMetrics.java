@@ -0,0 +1,50 @@
+package com.shipping.ops_producer.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup cost as seen by operators: {@code application.warmup{step}} for each warm-up step and
+ * {@code application.first.request} for the first shipment ingested after startup. Spring Boot
+ * already reports {@code application.started.time} and {@code application.ready.time}.
+ */
+@Component
+public class StartupMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer firstRequest;
+    private final AtomicBoolean firstSeen = new AtomicBoolean();
+
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.firstRequest = Timer.builder("application.first.request")
+                .description("Latency of the first shipment request after startup")
+                .register(meterRegistry);
+    }
+
+    public void recordWarmupStep(String step, Duration duration) {
+        Timer.builder("application.warmup")
+                .description("Time spent in each startup warm-up step")
+                .tag("step", step)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public <T> Mono<T> timeFirstRequest(Mono<T> source) {
+        if (firstSeen.get()) {
+            return source;
+        }
+        return Mono.defer(() -> {
+            if (!firstSeen.compareAndSet(false, true)) {
+                return source;
+            }
+            long start = System.nanoTime();
+            return source.doFinally(signal -> firstRequest.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+}